@@ -3,10 +3,15 @@ package train.local.fogpass;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.TimeZone;
+
 @SpringBootApplication
 public class FogPassEoelProjectApplication {
 
     public static void main(String[] args) {
+        // LocalDateTime columns hold UTC. Hibernate binds them through java.sql.Timestamp in the JVM zone,
+        // so pin it to UTC to keep JPA-written times in line with the JDBC writers (triggered_at, track times)
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
         SpringApplication.run(FogPassEoelProjectApplication.class, args);
     }
 
@@ -0,0 +1,62 @@
+package train.local.fogpass.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Makes idx_landmarks_route_seq (route_id, sequence_order) unique on databases created before it was.
+ * ddl-auto=update only creates missing indexes, so an existing non-unique one is kept as it is.
+ *
+ * The index is rebuilt as unique only when no duplicates exist; otherwise startup continues, the
+ * duplicate keys are logged and the landmark import inserts instead of updating until they are removed.
+ * To dedupe, keep one row per key, e.g. the lowest id, after pointing triggered_alert rows of the others
+ * at it:
+ * <pre>
+ * DELETE l FROM landmarks l JOIN landmarks k
+ *   ON k.route_id = l.route_id AND k.sequence_order = l.sequence_order AND k.id &lt; l.id;
+ * </pre>
+ */
+@Configuration
+public class LandmarkIndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LandmarkIndexMigration.class);
+
+    private static final String INDEX = "idx_landmarks_route_seq";
+    private static final String OLD_UNIQUE_INDEX = "uk_landmarks_route_seq"; // created by an earlier build
+
+    @Bean
+    ApplicationRunner migrateLandmarkIndex(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            Map<String, Boolean> unique = new HashMap<>();
+            jdbcTemplate.query("SELECT INDEX_NAME, MAX(NON_UNIQUE) FROM information_schema.STATISTICS "
+                            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'landmarks' AND INDEX_NAME IN (?, ?) "
+                            + "GROUP BY INDEX_NAME",
+                    rs -> { unique.put(rs.getString(1), rs.getInt(2) == 0); }, INDEX, OLD_UNIQUE_INDEX);
+
+            if (Boolean.FALSE.equals(unique.get(INDEX))) {
+                Integer duplicates = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT 1 FROM landmarks "
+                        + "GROUP BY route_id, sequence_order HAVING COUNT(*) > 1) d", Integer.class);
+                if (duplicates != null && duplicates > 0) {
+                    log.error("landmarks has {} duplicate (route_id, sequence_order) keys; {} stays non-unique and "
+                            + "landmark imports cannot update in place until they are removed", duplicates, INDEX);
+                    return;
+                }
+                jdbcTemplate.execute("ALTER TABLE landmarks DROP INDEX " + INDEX
+                        + ", ADD UNIQUE INDEX " + INDEX + " (route_id, sequence_order)");
+                log.info("Rebuilt {} as a unique index", INDEX);
+                unique.put(INDEX, true);
+            }
+            if (unique.containsKey(OLD_UNIQUE_INDEX) && Boolean.TRUE.equals(unique.get(INDEX))) {
+                jdbcTemplate.execute("ALTER TABLE landmarks DROP INDEX " + OLD_UNIQUE_INDEX);
+                log.info("Dropped redundant index {}", OLD_UNIQUE_INDEX);
+            }
+        };
+    }
+}
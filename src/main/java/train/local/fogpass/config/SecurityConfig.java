@@ -1,5 +1,6 @@
 package train.local.fogpass.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -61,6 +62,9 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/auth/**", "/").permitAll()
 
+                        // Async re-dispatch of an already authorized SSE request (the JWT filter doesn't run again)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import train.local.fogpass.dto.request.DivisionRequest;
+import train.local.fogpass.dto.response.DivisionResponse;
 import train.local.fogpass.entity.Division;
 import train.local.fogpass.entity.Zone;
 import train.local.fogpass.security.RoleConstants;
@@ -27,13 +28,13 @@ public class DivisionController {
 
     // ✅ Get all divisions (SUPER_ADMIN only)
     @GetMapping
-    public ResponseEntity<List<Division>> getAllDivisions() {
+    public ResponseEntity<List<DivisionResponse>> getAllDivisions() {
         return ResponseEntity.ok(divisionService.getAllDivisions());
     }
 
     // ✅ Get all divisions under a zone (SUPER_ADMIN only)
     @GetMapping("/zone/{zoneId}")
-    public ResponseEntity<List<Division>> getDivisionsByZone(@PathVariable Long zoneId) {
+    public ResponseEntity<List<DivisionResponse>> getDivisionsByZone(@PathVariable Long zoneId) {
         return ResponseEntity.ok(divisionService.getDivisionsByZone(zoneId));
     }
 
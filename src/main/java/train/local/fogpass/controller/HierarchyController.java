@@ -0,0 +1,42 @@
+package train.local.fogpass.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import train.local.fogpass.model.HierarchySnapshot;
+import train.local.fogpass.service.HierarchyService;
+import train.local.fogpass.util.HttpCaching;
+
+@RestController
+@RequestMapping("/api/hierarchy")
+@PreAuthorize("hasAnyRole(T(train.local.fogpass.security.RoleConstants).ADMIN, T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class HierarchyController {
+
+    private final HierarchyService hierarchyService;
+
+    public HierarchyController(HierarchyService hierarchyService) {
+        this.hierarchyService = hierarchyService;
+    }
+
+    // Full Zone → Division → Section tree from memory; 304 when the client already holds this version
+    @GetMapping
+    public ResponseEntity<byte[]> getHierarchy(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        HierarchySnapshot snapshot = hierarchyService.getSnapshot();
+        if (HttpCaching.etagMatches(ifNoneMatch, snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .cacheControl(CacheControl.noCache()) // clients may keep it, but must revalidate
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getJson());
+    }
+}
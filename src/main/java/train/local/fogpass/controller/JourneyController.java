@@ -1,12 +1,153 @@
 package train.local.fogpass.controller;
 
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import train.local.fogpass.dto.request.GpsBatchRequest;
+import train.local.fogpass.dto.request.GpsUpdateRequest;
+import train.local.fogpass.dto.response.GpsBatchResponse;
+import train.local.fogpass.dto.response.PerformanceSummaryResponse;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.service.AlertStreamService;
+import train.local.fogpass.service.GpsProcessingService;
+import train.local.fogpass.service.JourneyAccessService;
+import train.local.fogpass.service.JourneyService;
+import train.local.fogpass.service.TrackService;
+import train.local.fogpass.util.GpsBinaryFrame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/journeys")
 @PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).LOCO_PILOT) or hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
 public class JourneyController {
-    // Add endpoints as needed; RBAC already enforced via class-level pre-authorization
+    // RBAC via class-level pre-authorization; every endpoint also checks the journey is the caller's
+
+    private final GpsProcessingService gpsProcessingService;
+    private final AlertStreamService alertStreamService;
+    private final TrackService trackService;
+    private final JourneyService journeyService;
+    private final JourneyAccessService journeyAccessService;
+    private final int maxFixesPerFrame;
+    private final int maxFixesPerUpload;
+
+    public JourneyController(GpsProcessingService gpsProcessingService,
+                             AlertStreamService alertStreamService,
+                             TrackService trackService,
+                             JourneyService journeyService,
+                             JourneyAccessService journeyAccessService,
+                             @Value("${app.gps.binary.max-fixes-per-frame:120}") int maxFixesPerFrame,
+                             @Value("${app.gps.batch-upload.max-fixes:20000}") int maxFixesPerUpload,
+                             @Value("${app.gps.queue-capacity:120}") int queueCapacity) {
+        // A frame is queued as a unit, so it must fit in an empty journey queue
+        if (maxFixesPerFrame > queueCapacity) {
+            throw new IllegalStateException("app.gps.binary.max-fixes-per-frame (" + maxFixesPerFrame
+                    + ") must not exceed app.gps.queue-capacity (" + queueCapacity + ")");
+        }
+        this.gpsProcessingService = gpsProcessingService;
+        this.alertStreamService = alertStreamService;
+        this.trackService = trackService;
+        this.journeyService = journeyService;
+        this.journeyAccessService = journeyAccessService;
+        this.maxFixesPerFrame = maxFixesPerFrame;
+        this.maxFixesPerUpload = maxFixesPerUpload;
+    }
+
+    // Post a GPS fix (async: 202 once queued, 429 if the journey's queue is full under REJECT policy)
+    @PostMapping(value = "/{journeyId}/gps", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> postGps(@PathVariable Long journeyId, @Valid @RequestBody GpsUpdateRequest request) {
+        journeyAccessService.requireActive(journeyId);
+        long ts = request.getTimestamp() != null ? request.getTimestamp() : System.currentTimeMillis();
+        gpsProcessingService.submit(new GpsFix(
+                journeyId,
+                ts,
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getSpeed() != null ? request.getSpeed().floatValue() : 0f,
+                request.getHeading() != null ? request.getHeading().floatValue() : 0f
+        ));
+        return ResponseEntity.accepted().build();
+    }
+
+    // Same endpoint for packed binary frames of N fixes (see GpsBinaryFrame for the layout); queued all or nothing
+    @PostMapping(value = "/{journeyId}/gps", consumes = {GpsBinaryFrame.MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Void> postGpsFrame(@PathVariable Long journeyId, @RequestBody byte[] frame) {
+        journeyAccessService.requireActive(journeyId);
+        List<GpsFix> fixes = new ArrayList<>();
+        GpsBinaryFrame.decode(journeyId, ByteBuffer.wrap(frame), maxFixesPerFrame, fixes::add);
+        gpsProcessingService.submitAll(journeyId, fixes);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Store-and-forward backlog after signal loss; acknowledges the last accepted sequence number
+    @PostMapping(value = "/{journeyId}/gps/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<GpsBatchResponse> postGpsBatch(@PathVariable Long journeyId,
+                                                         @Valid @RequestBody GpsBatchRequest request) {
+        journeyAccessService.requireActive(journeyId);
+        List<GpsBatchRequest.Fix> fixes = request.getFixes();
+        if (fixes.size() > maxFixesPerUpload) {
+            throw new BadRequestException("At most " + maxFixesPerUpload + " fixes per upload");
+        }
+        long[] sequences = new long[fixes.size()];
+        List<GpsFix> gpsFixes = new ArrayList<>(fixes.size());
+        for (int i = 0; i < fixes.size(); i++) {
+            GpsBatchRequest.Fix f = fixes.get(i);
+            if (f.getTimestamp() == null) {
+                throw new BadRequestException("Buffered fix " + f.getSeq() + " has no timestamp");
+            }
+            if (i > 0 && f.getSeq() <= sequences[i - 1]) {
+                throw new BadRequestException("Fix sequence numbers must be strictly increasing");
+            }
+            sequences[i] = f.getSeq();
+            gpsFixes.add(new GpsFix(
+                    journeyId,
+                    f.getTimestamp(),
+                    f.getLatitude(),
+                    f.getLongitude(),
+                    f.getSpeed() != null ? f.getSpeed().floatValue() : 0f,
+                    f.getHeading() != null ? f.getHeading().floatValue() : 0f
+            ));
+        }
+        return ResponseEntity.ok(gpsProcessingService.submitBatch(journeyId, sequences, gpsFixes));
+    }
+
+    // Journey track in time order, optionally limited to [from, to) epoch millis
+    @GetMapping(value = "/{journeyId}/track", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getTrack(@PathVariable Long journeyId,
+                                                          @RequestParam(required = false) Long from,
+                                                          @RequestParam(required = false) Long to) {
+        journeyAccessService.requireOwned(journeyId);
+        StreamingResponseBody body = out -> trackService.writeTrackJson(journeyId, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Live alert stream for the cab device; reconnect with Last-Event-ID to receive missed alerts
+    @GetMapping(value = "/{journeyId}/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts(@PathVariable Long journeyId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        journeyAccessService.requireActive(journeyId);
+        return alertStreamService.subscribe(journeyId, lastEventId);
+    }
+
+    // Live performance summary while the journey runs; the persisted one after it has ended
+    @GetMapping("/{journeyId}/summary")
+    public ResponseEntity<PerformanceSummaryResponse> getSummary(@PathVariable Long journeyId) {
+        journeyAccessService.requireOwned(journeyId);
+        return ResponseEntity.ok(journeyService.getPerformanceSummary(journeyId));
+    }
+
+    // End the journey: persists its performance summary and closes its alert stream
+    @PostMapping("/{journeyId}/end")
+    public ResponseEntity<PerformanceSummaryResponse> endJourney(@PathVariable Long journeyId) {
+        journeyAccessService.requireOwned(journeyId);
+        return ResponseEntity.ok(journeyService.endJourney(journeyId));
+    }
 }
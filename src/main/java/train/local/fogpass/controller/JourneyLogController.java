@@ -0,0 +1,48 @@
+package train.local.fogpass.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.service.JourneyLogExportService;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/journey-logs")
+// Exports are not filtered by admin scope, so only SUPER_ADMIN may run them
+@PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class JourneyLogController {
+
+    private final JourneyLogExportService journeyLogExportService;
+
+    public JourneyLogController(JourneyLogExportService journeyLogExportService) {
+        this.journeyLogExportService = journeyLogExportService;
+    }
+
+    // Export journey logs as CSV or NDJSON, streamed row by row (filter by journey and/or [from, to))
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long journeyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") JourneyLogExportService.Format format) {
+        if (journeyId == null && (from == null || to == null)) {
+            throw new BadRequestException("Specify a journeyId or both from and to");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("from must be before to");
+        }
+        boolean csv = format == JourneyLogExportService.Format.CSV;
+        String fileName = "journey-logs" + (journeyId != null ? "-" + journeyId : "") + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = out -> journeyLogExportService.export(journeyId, from, to, format, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,41 @@
+package train.local.fogpass.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import train.local.fogpass.dto.response.LandmarkImportResponse;
+import train.local.fogpass.service.LandmarkImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/landmarks")
+// Landmarks can target any route, so like other hierarchy writes this is not open to scoped admins
+@PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class LandmarkController {
+
+    private final LandmarkImportService landmarkImportService;
+
+    public LandmarkController(LandmarkImportService landmarkImportService) {
+        this.landmarkImportService = landmarkImportService;
+    }
+
+    // Import landmarks from an uploaded CSV file (multipart field "file")
+    @PostMapping(value = "/import", consumes = "multipart/form-data")
+    public ResponseEntity<LandmarkImportResponse> importFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(landmarkImportService.importCsv(in));
+        }
+    }
+
+    // Import landmarks from a raw text/csv request body, streamed straight from the socket
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<LandmarkImportResponse> importBody(HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(landmarkImportService.importCsv(in));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package train.local.fogpass.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import train.local.fogpass.security.CustomUserDetailsService;
+import train.local.fogpass.security.TokenVersionCache;
+import train.local.fogpass.service.AlertService;
+import train.local.fogpass.service.AlertStreamService;
+import train.local.fogpass.service.GpsProcessingService;
+import train.local.fogpass.service.JourneyAccessService;
+import train.local.fogpass.service.JourneyLogPartitionService;
+import train.local.fogpass.service.LandmarkIndexService;
+import train.local.fogpass.service.PerformanceRescoreService;
+import train.local.fogpass.service.PerformanceSummaryService;
+import train.local.fogpass.service.HierarchyService;
+import train.local.fogpass.service.RoutePackageService;
+import train.local.fogpass.service.ScopeIndexService;
+import train.local.fogpass.service.TrackArchiveService;
+import train.local.fogpass.service.WriteBehindService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class MetricsController {
+
+    private final GpsProcessingService gpsProcessingService;
+    private final LandmarkIndexService landmarkIndexService;
+    private final AlertService alertService;
+    private final WriteBehindService writeBehindService;
+    private final AlertStreamService alertStreamService;
+    private final RoutePackageService routePackageService;
+    private final JourneyLogPartitionService journeyLogPartitionService;
+    private final TrackArchiveService trackArchiveService;
+    private final PerformanceSummaryService performanceSummaryService;
+    private final PerformanceRescoreService performanceRescoreService;
+    private final TokenVersionCache tokenVersionCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final ScopeIndexService scopeIndexService;
+    private final HierarchyService hierarchyService;
+    private final JourneyAccessService journeyAccessService;
+
+    public MetricsController(GpsProcessingService gpsProcessingService,
+                             LandmarkIndexService landmarkIndexService,
+                             AlertService alertService,
+                             WriteBehindService writeBehindService,
+                             AlertStreamService alertStreamService,
+                             RoutePackageService routePackageService,
+                             JourneyLogPartitionService journeyLogPartitionService,
+                             TrackArchiveService trackArchiveService,
+                             PerformanceSummaryService performanceSummaryService,
+                             PerformanceRescoreService performanceRescoreService,
+                             TokenVersionCache tokenVersionCache,
+                             CustomUserDetailsService userDetailsService,
+                             ScopeIndexService scopeIndexService,
+                             HierarchyService hierarchyService,
+                             JourneyAccessService journeyAccessService) {
+        this.gpsProcessingService = gpsProcessingService;
+        this.landmarkIndexService = landmarkIndexService;
+        this.alertService = alertService;
+        this.writeBehindService = writeBehindService;
+        this.alertStreamService = alertStreamService;
+        this.routePackageService = routePackageService;
+        this.journeyLogPartitionService = journeyLogPartitionService;
+        this.trackArchiveService = trackArchiveService;
+        this.performanceSummaryService = performanceSummaryService;
+        this.performanceRescoreService = performanceRescoreService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.userDetailsService = userDetailsService;
+        this.scopeIndexService = scopeIndexService;
+        this.hierarchyService = hierarchyService;
+        this.journeyAccessService = journeyAccessService;
+    }
+
+    // GPS ingestion counters: queue depth, batch sizes, drops/rejections
+    @GetMapping("/gps")
+    public ResponseEntity<Map<String, Object>> gps() {
+        return ResponseEntity.ok(gpsProcessingService.getStats());
+    }
+
+    // Landmark index: route cache hit/miss, rebuilds and proximity lookup latency
+    @GetMapping("/landmarks")
+    public ResponseEntity<Map<String, Object>> landmarks() {
+        return ResponseEntity.ok(landmarkIndexService.getStats());
+    }
+
+    // Alert engine: active journey cursors, landmarks passed, re-acquisitions
+    @GetMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> alerts() {
+        return ResponseEntity.ok(alertService.getStats());
+    }
+
+    // Write-behind persistence: buffered rows, batch sizes, spooled/replayed rows
+    @GetMapping("/write-behind")
+    public ResponseEntity<Map<String, Object>> writeBehind() {
+        return ResponseEntity.ok(writeBehindService.getStats());
+    }
+
+    // Alert push channel: subscribers, drops, replays and fix-to-alert latency
+    @GetMapping("/alert-stream")
+    public ResponseEntity<Map<String, Object>> alertStream() {
+        return ResponseEntity.ok(alertStreamService.getStats());
+    }
+
+    // Offline route packages: cached packages, builds, compression ratio
+    @GetMapping("/route-packages")
+    public ResponseEntity<Map<String, Object>> routePackages() {
+        return ResponseEntity.ok(routePackageService.getStats());
+    }
+
+    // journey_logs partition maintenance: partitions created/dropped, last run
+    @GetMapping("/journey-log-partitions")
+    public ResponseEntity<Map<String, Object>> journeyLogPartitions() {
+        return ResponseEntity.ok(journeyLogPartitionService.getStats());
+    }
+
+    @GetMapping("/track-archive")
+    public ResponseEntity<Map<String, Object>> trackArchive() {
+        return ResponseEntity.ok(trackArchiveService.getStats());
+    }
+
+    @GetMapping("/performance-summaries")
+    public ResponseEntity<Map<String, Object>> performanceSummaries() {
+        return ResponseEntity.ok(performanceSummaryService.getStats());
+    }
+
+    @GetMapping("/performance-rescore")
+    public ResponseEntity<Map<String, Object>> performanceRescore() {
+        return ResponseEntity.ok(performanceRescoreService.getStats());
+    }
+
+    @GetMapping("/token-versions")
+    public ResponseEntity<Map<String, Object>> tokenVersions() {
+        return ResponseEntity.ok(tokenVersionCache.getStats());
+    }
+
+    @GetMapping("/principal-cache")
+    public ResponseEntity<Map<String, Object>> principalCache() {
+        return ResponseEntity.ok(userDetailsService.getCacheStats());
+    }
+
+    @GetMapping("/scope-index")
+    public ResponseEntity<Map<String, Object>> scopeIndex() {
+        return ResponseEntity.ok(scopeIndexService.getStats());
+    }
+
+    @GetMapping("/hierarchy")
+    public ResponseEntity<Map<String, Object>> hierarchy() {
+        return ResponseEntity.ok(hierarchyService.getStats());
+    }
+
+    @GetMapping("/journey-access")
+    public ResponseEntity<Map<String, Object>> journeyAccess() {
+        return ResponseEntity.ok(journeyAccessService.getStats());
+    }
+}
@@ -0,0 +1,43 @@
+package train.local.fogpass.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import train.local.fogpass.dto.response.RescoreJobResponse;
+import train.local.fogpass.service.PerformanceRescoreService;
+
+@RestController
+@RequestMapping("/api/performance")
+@PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class PerformanceController {
+
+    private final PerformanceRescoreService performanceRescoreService;
+
+    public PerformanceController(PerformanceRescoreService performanceRescoreService) {
+        this.performanceRescoreService = performanceRescoreService;
+    }
+
+    // Rescore persisted summaries of completed journeys in [fromId, toId] (defaults: all) in the background
+    @PostMapping("/rescore")
+    public ResponseEntity<RescoreJobResponse> startRescore(@RequestParam(required = false) Long fromId,
+                                                           @RequestParam(required = false) Long toId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(performanceRescoreService.start(fromId, toId));
+    }
+
+    @GetMapping("/rescore/{jobId}")
+    public ResponseEntity<RescoreJobResponse> getRescore(@PathVariable Long jobId) {
+        return ResponseEntity.ok(performanceRescoreService.getJob(jobId));
+    }
+
+    // Continue a cancelled, failed or interrupted job from its last checkpoint
+    @PostMapping("/rescore/{jobId}/resume")
+    public ResponseEntity<RescoreJobResponse> resumeRescore(@PathVariable Long jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(performanceRescoreService.resume(jobId));
+    }
+
+    @PostMapping("/rescore/{jobId}/cancel")
+    public ResponseEntity<RescoreJobResponse> cancelRescore(@PathVariable Long jobId) {
+        return ResponseEntity.ok(performanceRescoreService.cancel(jobId));
+    }
+}
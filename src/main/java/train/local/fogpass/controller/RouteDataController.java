@@ -1,3 +1,46 @@
 package train.local.fogpass.controller;
 
-public class RouteDataController {}
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import train.local.fogpass.model.RoutePackage;
+import train.local.fogpass.service.RoutePackageService;
+import train.local.fogpass.util.HttpCaching;
+
+@RestController
+@RequestMapping("/api/routes")
+@PreAuthorize("hasRole(T(train.local.fogpass.security.RoleConstants).LOCO_PILOT) or hasRole(T(train.local.fogpass.security.RoleConstants).SUPER_ADMIN)")
+public class RouteDataController {
+
+    private final RoutePackageService routePackageService;
+
+    public RouteDataController(RoutePackageService routePackageService) {
+        this.routePackageService = routePackageService;
+    }
+
+    // Offline route package for the cab device; 304 when the device already holds this version
+    @GetMapping("/{routeId}/package")
+    public ResponseEntity<byte[]> getRoutePackage(
+            @PathVariable Long routeId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RoutePackage pkg = routePackageService.getPackage(routeId);
+        if (HttpCaching.etagMatches(ifNoneMatch, pkg.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(pkg.getETag()).build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(pkg.getETag())
+                .cacheControl(CacheControl.noCache()) // devices may keep it, but must revalidate
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(pkg.getGzipped());
+        }
+        return ok.body(pkg.readUncompressed());
+    }
+}
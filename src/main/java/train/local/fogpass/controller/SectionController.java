@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import train.local.fogpass.dto.request.SectionBulkRequest;
+import train.local.fogpass.dto.response.SectionResponse;
 import train.local.fogpass.entity.Section;
 import train.local.fogpass.service.SectionService;
 
@@ -25,13 +26,13 @@ public class SectionController {
 
     // Get all sections
     @GetMapping
-    public ResponseEntity<List<Section>> getAllSections() {
+    public ResponseEntity<List<SectionResponse>> getAllSections() {
         return ResponseEntity.ok(sectionService.getAllSections());
     }
 
     // Get sections by division
     @GetMapping("/division/{divisionId}")
-    public ResponseEntity<List<Section>> getSectionsByDivision(@PathVariable Long divisionId) {
+    public ResponseEntity<List<SectionResponse>> getSectionsByDivision(@PathVariable Long divisionId) {
         return ResponseEntity.ok(sectionService.getSectionsByDivision(divisionId));
     }
 
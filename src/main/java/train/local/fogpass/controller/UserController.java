@@ -10,6 +10,7 @@ import train.local.fogpass.dto.request.RoleAssignmentDto;
 import train.local.fogpass.dto.request.UserCreateRequest;
 import train.local.fogpass.dto.request.UserUpdateRequest;
 import train.local.fogpass.dto.response.ApiResponse;
+import train.local.fogpass.dto.response.UserPageResponse;
 import train.local.fogpass.dto.response.UserResponse;
 import train.local.fogpass.entity.User;
 import train.local.fogpass.service.UserService;
@@ -59,6 +60,22 @@ public class UserController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Users fetched successfully", users));
     }
 
+    // Keyset-paginated listing → GET /api/users?afterId=&limit=&active=&designation=&zoneId=&divisionId=&sectionId=
+    // Pass the previous page's nextAfterId as afterId to continue
+    @GetMapping
+    public ResponseEntity<ApiResponse<UserPageResponse>> listUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String designation,
+            @RequestParam(required = false) Long zoneId,
+            @RequestParam(required = false) Long divisionId,
+            @RequestParam(required = false) Long sectionId
+    ) {
+        UserPageResponse page = userService.listUsers(afterId, limit, active, designation, zoneId, divisionId, sectionId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Users fetched successfully", page));
+    }
+
     // Update User
     @PutMapping("id/{id}")
     public ResponseEntity<ApiResponse<UserResponse>> updateUser(
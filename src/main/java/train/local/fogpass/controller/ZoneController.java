@@ -4,6 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import train.local.fogpass.dto.response.ZoneResponse;
 import train.local.fogpass.entity.Zone;
 import train.local.fogpass.security.RoleConstants;
 import train.local.fogpass.service.ZoneService;
@@ -23,7 +24,7 @@ public class ZoneController {
 
     // GET all zones (ADMIN and SUPER_ADMIN)
     @GetMapping
-    public ResponseEntity<List<Zone>> getAll() {
+    public ResponseEntity<List<ZoneResponse>> getAll() {
         return ResponseEntity.ok(zoneService.getAllZones());
     }
 
@@ -0,0 +1,30 @@
+package train.local.fogpass.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Store-and-forward upload: the fixes a cab device buffered while it had no signal, oldest first.
+ */
+public class GpsBatchRequest {
+
+    @NotEmpty
+    @Valid
+    private List<Fix> fixes;
+
+    public List<Fix> getFixes() { return fixes; }
+    public void setFixes(List<Fix> fixes) { this.fixes = fixes; }
+
+    /** A buffered fix; the device's sequence number makes retries of the same upload idempotent. */
+    public static class Fix extends GpsUpdateRequest {
+
+        @NotNull
+        private Long seq;
+
+        public Long getSeq() { return seq; }
+        public void setSeq(Long seq) { this.seq = seq; }
+    }
+}
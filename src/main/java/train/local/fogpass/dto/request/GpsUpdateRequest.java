@@ -1,3 +1,42 @@
 package train.local.fogpass.dto.request;
 
-public class GpsUpdateRequest {}
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A single GPS fix posted by the cab device (typically once per second).
+ */
+public class GpsUpdateRequest {
+
+    @NotNull
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @NotNull
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
+    @DecimalMin("0.0")
+    @DecimalMax("500.0")
+    private Double speed;     // km/h, optional
+
+    @DecimalMin("0.0")
+    @DecimalMax("360.0")
+    private Double heading;   // degrees from north, optional
+
+    private Long timestamp;   // epoch millis at the device; server time is used when absent
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public Double getSpeed() { return speed; }
+    public void setSpeed(Double speed) { this.speed = speed; }
+    public Double getHeading() { return heading; }
+    public void setHeading(Double heading) { this.heading = heading; }
+    public Long getTimestamp() { return timestamp; }
+    public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
+}
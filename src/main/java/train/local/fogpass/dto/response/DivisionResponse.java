@@ -0,0 +1,50 @@
+package train.local.fogpass.dto.response;
+
+import java.time.Instant;
+
+public class DivisionResponse {
+    private Long id;
+    private String name;
+    private Long zoneId;
+    private String zoneName;
+    private String createdBy;
+    private Instant createdDate;
+    private String updatedBy;
+    private Instant updatedDate;
+
+    public DivisionResponse() {}
+
+    // Used by JPQL constructor expressions
+    public DivisionResponse(Long id, String name, Long zoneId, String zoneName, String createdBy,
+                            Instant createdDate, String updatedBy, Instant updatedDate) {
+        this.id = id;
+        this.name = name;
+        this.zoneId = zoneId;
+        this.zoneName = zoneName;
+        this.createdBy = createdBy;
+        this.createdDate = createdDate;
+        this.updatedBy = updatedBy;
+        this.updatedDate = updatedDate;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Long getZoneId() { return zoneId; }
+    public void setZoneId(Long zoneId) { this.zoneId = zoneId; }
+    public String getZoneName() { return zoneName; }
+    public void setZoneName(String zoneName) { this.zoneName = zoneName; }
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+    public Instant getCreatedDate() { return createdDate; }
+    public void setCreatedDate(Instant createdDate) { this.createdDate = createdDate; }
+    public String getUpdatedBy() { return updatedBy; }
+    public void setUpdatedBy(String updatedBy) { this.updatedBy = updatedBy; }
+    public Instant getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(Instant updatedDate) { this.updatedDate = updatedDate; }
+
+    // Same aliases the Division entity exposes
+    public Long getDivisionId() { return id; }
+    public String getDivisionName() { return name; }
+}
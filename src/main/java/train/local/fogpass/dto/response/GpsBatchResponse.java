@@ -0,0 +1,26 @@
+package train.local.fogpass.dto.response;
+
+/**
+ * Acknowledgement of a store-and-forward upload. The device can discard every buffered fix up to
+ * {@code lastAcceptedSeq}; fixes at or below the journey's previous ack are counted as duplicates.
+ */
+public class GpsBatchResponse {
+    private long lastAcceptedSeq;
+    private int accepted;
+    private int duplicates;
+
+    public GpsBatchResponse() {}
+
+    public GpsBatchResponse(long lastAcceptedSeq, int accepted, int duplicates) {
+        this.lastAcceptedSeq = lastAcceptedSeq;
+        this.accepted = accepted;
+        this.duplicates = duplicates;
+    }
+
+    public long getLastAcceptedSeq() { return lastAcceptedSeq; }
+    public void setLastAcceptedSeq(long lastAcceptedSeq) { this.lastAcceptedSeq = lastAcceptedSeq; }
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+    public int getDuplicates() { return duplicates; }
+    public void setDuplicates(int duplicates) { this.duplicates = duplicates; }
+}
@@ -0,0 +1,50 @@
+package train.local.fogpass.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a landmark CSV import. Only the first errors are listed (see {@code errorsTruncated}).
+ */
+public class LandmarkImportResponse {
+
+    public static class RowError {
+        private long line;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public void setLine(long line) { this.line = line; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private int routesRefreshed;
+    private long elapsedMillis;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    public long getTotalRows() { return totalRows; }
+    public void setTotalRows(long totalRows) { this.totalRows = totalRows; }
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public int getRoutesRefreshed() { return routesRefreshed; }
+    public void setRoutesRefreshed(int routesRefreshed) { this.routesRefreshed = routesRefreshed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+}
@@ -0,0 +1,49 @@
+package train.local.fogpass.dto.response;
+
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.entity.enums.PunctualityStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Performance summary of a journey. {@code live} is true while the journey is running and the figures
+ * come from its in-memory aggregates; false once the summary has been persisted at journey end.
+ */
+public class PerformanceSummaryResponse {
+    private Long journeyId;
+    private boolean live;
+    private PunctualityStatus punctualityStatus;
+    private Integer totalDelayMinutes;
+    private BigDecimal avgSpeed;
+    private Integer totalAlerts;
+    private BigDecimal efficiencyScore;
+
+    public PerformanceSummaryResponse() {}
+
+    public static PerformanceSummaryResponse from(Long journeyId, PerformanceSummary summary, boolean live) {
+        PerformanceSummaryResponse r = new PerformanceSummaryResponse();
+        r.journeyId = journeyId;
+        r.live = live;
+        r.punctualityStatus = summary.getPunctualityStatus();
+        r.totalDelayMinutes = summary.getTotalDelayMinutes();
+        r.avgSpeed = summary.getAvgSpeed();
+        r.totalAlerts = summary.getTotalAlerts();
+        r.efficiencyScore = summary.getEfficiencyScore();
+        return r;
+    }
+
+    public Long getJourneyId() { return journeyId; }
+    public void setJourneyId(Long journeyId) { this.journeyId = journeyId; }
+    public boolean isLive() { return live; }
+    public void setLive(boolean live) { this.live = live; }
+    public PunctualityStatus getPunctualityStatus() { return punctualityStatus; }
+    public void setPunctualityStatus(PunctualityStatus punctualityStatus) { this.punctualityStatus = punctualityStatus; }
+    public Integer getTotalDelayMinutes() { return totalDelayMinutes; }
+    public void setTotalDelayMinutes(Integer totalDelayMinutes) { this.totalDelayMinutes = totalDelayMinutes; }
+    public BigDecimal getAvgSpeed() { return avgSpeed; }
+    public void setAvgSpeed(BigDecimal avgSpeed) { this.avgSpeed = avgSpeed; }
+    public Integer getTotalAlerts() { return totalAlerts; }
+    public void setTotalAlerts(Integer totalAlerts) { this.totalAlerts = totalAlerts; }
+    public BigDecimal getEfficiencyScore() { return efficiencyScore; }
+    public void setEfficiencyScore(BigDecimal efficiencyScore) { this.efficiencyScore = efficiencyScore; }
+}
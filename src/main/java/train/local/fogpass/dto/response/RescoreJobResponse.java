@@ -0,0 +1,62 @@
+package train.local.fogpass.dto.response;
+
+import train.local.fogpass.entity.RescoreJob;
+import train.local.fogpass.entity.enums.RescoreJobStatus;
+
+import java.time.LocalDateTime;
+
+/** Progress of a performance-summary rescoring job, as last checkpointed. */
+public class RescoreJobResponse {
+    private Long jobId;
+    private RescoreJobStatus status;
+    private boolean active;
+    private Long fromId;
+    private Long toId;
+    private Integer rangesTotal;
+    private Integer rangesDone;
+    private Long journeysScored;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String lastError;
+
+    public RescoreJobResponse() {}
+
+    public static RescoreJobResponse from(RescoreJob job, boolean active) {
+        RescoreJobResponse r = new RescoreJobResponse();
+        r.jobId = job.getId();
+        r.status = job.getStatus();
+        r.active = active;
+        r.fromId = job.getFromId();
+        r.toId = job.getToId();
+        r.rangesTotal = job.getRangesTotal();
+        r.rangesDone = job.getRangesDone();
+        r.journeysScored = job.getJourneysScored();
+        r.startedAt = job.getStartedAt();
+        r.finishedAt = job.getFinishedAt();
+        r.lastError = job.getLastError();
+        return r;
+    }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    public RescoreJobStatus getStatus() { return status; }
+    public void setStatus(RescoreJobStatus status) { this.status = status; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public Long getFromId() { return fromId; }
+    public void setFromId(Long fromId) { this.fromId = fromId; }
+    public Long getToId() { return toId; }
+    public void setToId(Long toId) { this.toId = toId; }
+    public Integer getRangesTotal() { return rangesTotal; }
+    public void setRangesTotal(Integer rangesTotal) { this.rangesTotal = rangesTotal; }
+    public Integer getRangesDone() { return rangesDone; }
+    public void setRangesDone(Integer rangesDone) { this.rangesDone = rangesDone; }
+    public Long getJourneysScored() { return journeysScored; }
+    public void setJourneysScored(Long journeysScored) { this.journeysScored = journeysScored; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,42 @@
+package train.local.fogpass.dto.response;
+
+import java.time.Instant;
+
+public class SectionResponse {
+    private Long id;
+    private String name;
+    private Long divisionId;
+    private String createdBy;
+    private Instant createdDate;
+    private String updatedBy;
+    private Instant updatedDate;
+
+    public SectionResponse() {}
+
+    // Used by JPQL constructor expressions
+    public SectionResponse(Long id, String name, Long divisionId, String createdBy,
+                           Instant createdDate, String updatedBy, Instant updatedDate) {
+        this.id = id;
+        this.name = name;
+        this.divisionId = divisionId;
+        this.createdBy = createdBy;
+        this.createdDate = createdDate;
+        this.updatedBy = updatedBy;
+        this.updatedDate = updatedDate;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public Long getDivisionId() { return divisionId; }
+    public void setDivisionId(Long divisionId) { this.divisionId = divisionId; }
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+    public Instant getCreatedDate() { return createdDate; }
+    public void setCreatedDate(Instant createdDate) { this.createdDate = createdDate; }
+    public String getUpdatedBy() { return updatedBy; }
+    public void setUpdatedBy(String updatedBy) { this.updatedBy = updatedBy; }
+    public Instant getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(Instant updatedDate) { this.updatedDate = updatedDate; }
+}
@@ -0,0 +1,21 @@
+package train.local.fogpass.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserPageResponse {
+    private List<UserResponse> items = new ArrayList<>();
+    private Long nextAfterId; // null on the last page
+
+    public UserPageResponse() {}
+
+    public UserPageResponse(List<UserResponse> items, Long nextAfterId) {
+        this.items = items;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<UserResponse> getItems() { return items; }
+    public void setItems(List<UserResponse> items) { this.items = items; }
+    public Long getNextAfterId() { return nextAfterId; }
+    public void setNextAfterId(Long nextAfterId) { this.nextAfterId = nextAfterId; }
+}
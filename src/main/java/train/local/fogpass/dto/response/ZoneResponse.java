@@ -0,0 +1,43 @@
+package train.local.fogpass.dto.response;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ZoneResponse {
+    private Long zoneId;
+    private String zonename;
+    private String createdBy;
+    private Instant createdDate;
+    private String updatedBy;
+    private Instant updatedDate;
+    private List<DivisionResponse> divisions = new ArrayList<>();
+
+    public ZoneResponse() {}
+
+    // Used by JPQL constructor expressions
+    public ZoneResponse(Long zoneId, String zonename, String createdBy, Instant createdDate,
+                        String updatedBy, Instant updatedDate) {
+        this.zoneId = zoneId;
+        this.zonename = zonename;
+        this.createdBy = createdBy;
+        this.createdDate = createdDate;
+        this.updatedBy = updatedBy;
+        this.updatedDate = updatedDate;
+    }
+
+    public Long getZoneId() { return zoneId; }
+    public void setZoneId(Long zoneId) { this.zoneId = zoneId; }
+    public String getZonename() { return zonename; }
+    public void setZonename(String zonename) { this.zonename = zonename; }
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+    public Instant getCreatedDate() { return createdDate; }
+    public void setCreatedDate(Instant createdDate) { this.createdDate = createdDate; }
+    public String getUpdatedBy() { return updatedBy; }
+    public void setUpdatedBy(String updatedBy) { this.updatedBy = updatedBy; }
+    public Instant getUpdatedDate() { return updatedDate; }
+    public void setUpdatedDate(Instant updatedDate) { this.updatedDate = updatedDate; }
+    public List<DivisionResponse> getDivisions() { return divisions; }
+    public void setDivisions(List<DivisionResponse> divisions) { this.divisions = divisions; }
+}
@@ -1,12 +1,15 @@
 package train.local.fogpass.entity;
 
 import jakarta.persistence.*;
+import train.local.fogpass.entity.listener.LandmarkChangeListener;
+
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(LandmarkChangeListener.class)
 @Table(name = "landmarks", indexes = {
         @Index(name = "idx_landmarks_route_id", columnList = "route_id"),
-        @Index(name = "idx_landmarks_route_seq", columnList = "route_id, sequence_order")
+        @Index(name = "idx_landmarks_route_seq", columnList = "route_id, sequence_order", unique = true)
 })
 public class Landmark {
 
@@ -37,6 +40,10 @@ public class Landmark {
     @JoinColumn(name = "route_id", nullable = false)
     private Route route;
 
+    // Route id as last loaded or written, so moving a landmark also refreshes the route it left
+    @Transient
+    private Long persistedRouteId;
+
     // --- Constructors ---
     public Landmark() {
     }
@@ -122,4 +129,12 @@ public class Landmark {
     public void setRoute(Route route) {
         this.route = route;
     }
+
+    public Long getPersistedRouteId() {
+        return persistedRouteId;
+    }
+
+    public void setPersistedRouteId(Long persistedRouteId) {
+        this.persistedRouteId = persistedRouteId;
+    }
 }
\ No newline at end of file
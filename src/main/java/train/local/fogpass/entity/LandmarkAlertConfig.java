@@ -5,12 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import train.local.fogpass.entity.listener.LandmarkAlertConfigChangeListener;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(LandmarkAlertConfigChangeListener.class)
 @Table(name = "landmark_alert_config", indexes = {
         @Index(name = "idx_lac_landmark_type", columnList = "landmarkType", unique = true)
 })
@@ -0,0 +1,58 @@
+package train.local.fogpass.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import train.local.fogpass.entity.enums.RescoreJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A run recomputing persisted performance summaries over the journey id range [fromId, toId].
+ * Progress counters are advanced in the same transaction as each range's summaries.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rescore_jobs")
+public class RescoreJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RescoreJobStatus status;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    @Column(name = "range_size", nullable = false)
+    private Integer rangeSize;
+
+    @Column(name = "ranges_total", nullable = false)
+    private Integer rangesTotal;
+
+    @Column(name = "ranges_done", nullable = false)
+    private Integer rangesDone;
+
+    @Column(name = "journeys_scored", nullable = false)
+    private Long journeysScored;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
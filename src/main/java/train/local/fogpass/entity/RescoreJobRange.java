@@ -0,0 +1,34 @@
+package train.local.fogpass.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/** Checkpoint: the id range starting at rangeStart has been rescored by the job. Resuming skips it. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(RescoreJobRangeId.class)
+@Table(name = "rescore_job_ranges")
+public class RescoreJobRange {
+
+    @Id
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Id
+    @Column(name = "range_start")
+    private Long rangeStart;
+
+    @Column(name = "journeys_scored", nullable = false)
+    private Integer journeysScored;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package train.local.fogpass.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RescoreJobRangeId implements Serializable {
+    private Long jobId;
+    private Long rangeStart;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import train.local.fogpass.entity.listener.RouteChangeListener;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,6 +15,7 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(RouteChangeListener.class)
 @Table(name = "routes", indexes = {
         @Index(name = "idx_routes_section_id", columnList = "section_id")
 })
@@ -0,0 +1,48 @@
+package train.local.fogpass.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A completed journey's whole track as one {@link train.local.fogpass.util.TrackCodec} blob; the
+ * journey's track_points rows are deleted once this is written.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "track_archives")
+public class TrackArchive {
+
+    @Id
+    @Column(name = "journey_id")
+    private Long journeyId;
+
+    @Column(name = "point_count", nullable = false)
+    private Integer pointCount;
+
+    @Column(name = "first_ts", nullable = false)
+    private Long firstTs;
+
+    @Column(name = "last_ts", nullable = false)
+    private Long lastTs;
+
+    @Column(name = "raw_bytes", nullable = false)
+    private Long rawBytes; // size of the same points as fixed-width track_points data
+
+    @Lob
+    @Column(name = "encoded", nullable = false, columnDefinition = "longblob")
+    private byte[] encoded;
+
+    @Column(name = "format_version", nullable = false)
+    private Integer formatVersion;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,42 @@
+package train.local.fogpass.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One GPS fix of a journey's track in fixed-point columns (28 bytes of data per row).
+ * The clustered primary key (journey_id, ts) stores each journey's points contiguously in time order,
+ * so replaying a track is a single range scan. Rows are written in bulk by the write-behind stage.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(TrackPointId.class)
+@Table(name = "track_points")
+public class TrackPoint {
+
+    @Id
+    @Column(name = "journey_id")
+    private Long journeyId;
+
+    @Id
+    @Column(name = "ts")
+    private Long ts; // epoch millis
+
+    @Column(name = "lat_e7", nullable = false)
+    private int latE7; // degrees x 1e7
+
+    @Column(name = "lon_e7", nullable = false)
+    private int lonE7;
+
+    @Column(name = "speed_tenths", nullable = false)
+    private short speedTenths; // km/h x 10
+
+    @Column(name = "heading_tenths", nullable = false)
+    private short headingTenths; // degrees x 10
+}
@@ -1,18 +1,45 @@
 package train.local.fogpass.entity;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import train.local.fogpass.entity.enums.AlertType;
 
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
 @Entity
-@Table(name = "triggered_alert")
+@Table(name = "triggered_alert", indexes = {
+        @Index(name = "idx_triggered_alert_journey_id", columnList = "journey_id")
+})
 public class TriggeredAlert {
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-}
\ No newline at end of file
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "journey_id", nullable = false)
+    private Journey journey;
+
+    @Column(name = "landmark_id", nullable = false)
+    private Long landmarkId; // plain id: alerts are written in bulk and never navigate to the landmark
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private AlertType alertType;
+
+    @Column(name = "landmark_type")
+    private String landmarkType;
+
+    @Column(name = "distance_meters")
+    private Integer distanceMeters;
+
+    @Column(name = "triggered_at", nullable = false)
+    private LocalDateTime triggeredAt;
+}
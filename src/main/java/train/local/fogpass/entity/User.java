@@ -47,6 +47,10 @@ public class User {
     @Column(name = "mob_no", length = 20)
     private String mobNo;
 
+    // Embedded in issued JWTs; bumping it revokes every token issued before the change
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
     // --- Relationships ---
     @OneToOne(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private UserSettings userSettings;
@@ -138,6 +142,14 @@ public class User {
         this.mobNo = mobNo;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public UserSettings getUserSettings() {
         return userSettings;
     }
@@ -13,7 +13,10 @@ import lombok.Setter;
 @Entity
 @Table(name = "user_access_scope", indexes = {
         @Index(name = "idx_uas_user_id", columnList = "user_id"),
-        @Index(name = "idx_uas_role_id", columnList = "role_id")
+        @Index(name = "idx_uas_role_id", columnList = "role_id"),
+        @Index(name = "idx_uas_zone_user", columnList = "zoneId, user_id"),
+        @Index(name = "idx_uas_division_user", columnList = "divisionId, user_id"),
+        @Index(name = "idx_uas_section_user", columnList = "sectionId, user_id")
 })
 public class UserAccessScope {
 
@@ -0,0 +1,7 @@
+package train.local.fogpass.entity.enums;
+
+public enum AlertType {
+    PREWARNING,
+    AT_LANDMARK,
+    PASSED
+}
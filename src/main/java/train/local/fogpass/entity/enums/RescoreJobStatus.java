@@ -0,0 +1,8 @@
+package train.local.fogpass.entity.enums;
+
+public enum RescoreJobStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
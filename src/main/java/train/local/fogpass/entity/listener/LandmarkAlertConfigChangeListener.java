@@ -0,0 +1,47 @@
+package train.local.fogpass.entity.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.entity.LandmarkAlertConfig;
+import train.local.fogpass.service.AlertService;
+import train.local.fogpass.service.RoutePackageService;
+
+/**
+ * Every route package embeds the landmarkType → audio mapping, as does the alert engine's lookup, so
+ * any {@link LandmarkAlertConfig} write discards all packages and reloads the mapping after commit.
+ */
+@Component
+public class LandmarkAlertConfigChangeListener {
+
+    // Resolved lazily: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    private final ObjectProvider<RoutePackageService> routePackageService;
+    private final ObjectProvider<AlertService> alertService;
+
+    public LandmarkAlertConfigChangeListener(ObjectProvider<RoutePackageService> routePackageService,
+                                             ObjectProvider<AlertService> alertService) {
+        this.routePackageService = routePackageService;
+        this.alertService = alertService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(LandmarkAlertConfig config) {
+        routePackageService.getObject().invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alertService.getObject().refreshAlertConfig();
+                }
+            });
+        } else {
+            alertService.getObject().refreshAlertConfig();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package train.local.fogpass.entity.listener;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import train.local.fogpass.entity.Landmark;
+import train.local.fogpass.service.LandmarkIndexService;
+import train.local.fogpass.service.RoutePackageService;
+
+import java.util.Objects;
+
+/**
+ * Keeps the in-memory landmark index and route packages in step with JPA writes to {@link Landmark}.
+ * Affected routes (both the old and the new one when a landmark moves) are handed to the services,
+ * which rebuild/invalidate each route once after the transaction commits.
+ */
+@Component
+public class LandmarkChangeListener {
+
+    // Resolved lazily: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    private final ObjectProvider<LandmarkIndexService> landmarkIndexService;
+    private final ObjectProvider<RoutePackageService> routePackageService;
+
+    public LandmarkChangeListener(ObjectProvider<LandmarkIndexService> landmarkIndexService,
+                                  ObjectProvider<RoutePackageService> routePackageService) {
+        this.landmarkIndexService = landmarkIndexService;
+        this.routePackageService = routePackageService;
+    }
+
+    @PostLoad
+    public void onLoad(Landmark landmark) {
+        landmark.setPersistedRouteId(routeIdOf(landmark));
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Landmark landmark) {
+        Long current = routeIdOf(landmark);
+        Long previous = landmark.getPersistedRouteId();
+        routeChanged(current);
+        if (previous != null && !Objects.equals(previous, current)) {
+            routeChanged(previous);
+        }
+        landmark.setPersistedRouteId(current);
+    }
+
+    private void routeChanged(Long routeId) {
+        if (routeId == null) return;
+        landmarkIndexService.getObject().onLandmarksChanged(routeId);
+        routePackageService.getObject().onRouteChanged(routeId);
+    }
+
+    // Reading the id of a lazy proxy does not initialize it
+    private static Long routeIdOf(Landmark landmark) {
+        return landmark.getRoute() != null ? landmark.getRoute().getId() : null;
+    }
+}
@@ -0,0 +1,34 @@
+package train.local.fogpass.entity.listener;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import train.local.fogpass.entity.Route;
+import train.local.fogpass.service.LandmarkIndexService;
+import train.local.fogpass.service.RoutePackageService;
+
+/**
+ * Invalidates a route's cached package and landmark index (whose path order depends on the route's
+ * direction) after JPA writes to the {@link Route} itself. A new route has neither yet, so inserts need nothing.
+ */
+@Component
+public class RouteChangeListener {
+
+    // Resolved lazily: Hibernate instantiates listeners while the EntityManagerFactory is still being built
+    private final ObjectProvider<LandmarkIndexService> landmarkIndexService;
+    private final ObjectProvider<RoutePackageService> routePackageService;
+
+    public RouteChangeListener(ObjectProvider<LandmarkIndexService> landmarkIndexService,
+                               ObjectProvider<RoutePackageService> routePackageService) {
+        this.landmarkIndexService = landmarkIndexService;
+        this.routePackageService = routePackageService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Route route) {
+        landmarkIndexService.getObject().onLandmarksChanged(route.getId());
+        routePackageService.getObject().onRouteChanged(route.getId());
+    }
+}
@@ -16,15 +16,17 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "journey_logs", indexes = {
         @Index(name = "idx_journey_logs_journey_id", columnList = "journey_id"),
-        @Index(name = "idx_journey_logs_log_timestamp", columnList = "log_timestamp")
+        @Index(name = "idx_journey_logs_log_timestamp", columnList = "log_timestamp"),
+        @Index(name = "idx_journey_logs_journey_ts", columnList = "journey_id, log_timestamp")
 })
 public class JourneyLog {
 
+    // When partitioning is enabled the table's PK becomes (id, log_timestamp); id alone stays unique
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "log_timestamp")
+    @Column(name = "log_timestamp", nullable = false)
     private LocalDateTime logTimestamp;
 
     private String eventType;
@@ -32,7 +34,8 @@ public class JourneyLog {
     @Column(columnDefinition = "json")
     private String eventData; // JSON as string
 
+    // No FK constraint: MySQL does not allow foreign keys on partitioned tables
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "journey_id")
+    @JoinColumn(name = "journey_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Journey journey;
 }
\ No newline at end of file
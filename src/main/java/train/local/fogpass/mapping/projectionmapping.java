@@ -1,4 +1,32 @@
 package train.local.fogpass.mapping;
 
+import java.time.LocalDate;
+
+/**
+ * Interface projections for list queries: Spring Data selects only the listed columns instead of
+ * hydrating managed entities and their collections.
+ */
 public interface projectionmapping {
+
+    /** One row of the paginated user listing. */
+    interface UserRow {
+        Long getId();
+        String getUsername();
+        Long getUserId();
+        String getLocoPilotId();
+        LocalDate getDateOfBirth();
+        String getDesignation();
+        String getDepartment();
+        boolean isActive();
+        String getMobNo();
+    }
+
+    /** One access scope of a listed user, loaded for a whole page at once. */
+    interface UserScopeRow {
+        Long getUserId();
+        String getRoleName();
+        Long getZoneId();
+        Long getDivisionId();
+        Long getSectionId();
+    }
 }
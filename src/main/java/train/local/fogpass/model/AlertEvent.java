@@ -0,0 +1,42 @@
+package train.local.fogpass.model;
+
+import train.local.fogpass.entity.enums.AlertType;
+
+/**
+ * An alert produced by the alert engine for one landmark on one journey.
+ */
+public final class AlertEvent {
+
+    private final long journeyId;
+    private final long landmarkId;
+    private final int sequenceOrder;
+    private final String landmarkName;
+    private final String landmarkType;
+    private final AlertType alertType;
+    private final int distanceMeters;
+    private final String audioFileName;
+    private final long timestamp; // epoch millis of the fix that triggered it
+
+    public AlertEvent(long journeyId, long landmarkId, int sequenceOrder, String landmarkName, String landmarkType,
+                      AlertType alertType, int distanceMeters, String audioFileName, long timestamp) {
+        this.journeyId = journeyId;
+        this.landmarkId = landmarkId;
+        this.sequenceOrder = sequenceOrder;
+        this.landmarkName = landmarkName;
+        this.landmarkType = landmarkType;
+        this.alertType = alertType;
+        this.distanceMeters = distanceMeters;
+        this.audioFileName = audioFileName;
+        this.timestamp = timestamp;
+    }
+
+    public long getJourneyId() { return journeyId; }
+    public long getLandmarkId() { return landmarkId; }
+    public int getSequenceOrder() { return sequenceOrder; }
+    public String getLandmarkName() { return landmarkName; }
+    public String getLandmarkType() { return landmarkType; }
+    public AlertType getAlertType() { return alertType; }
+    public int getDistanceMeters() { return distanceMeters; }
+    public String getAudioFileName() { return audioFileName; }
+    public long getTimestamp() { return timestamp; }
+}
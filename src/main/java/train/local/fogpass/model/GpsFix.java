@@ -0,0 +1,35 @@
+package train.local.fogpass.model;
+
+/**
+ * Immutable in-memory form of a GPS fix as it travels through the ingestion pipeline.
+ * Primitive fields only, so a fix costs a single small allocation regardless of the
+ * wire format it arrived in.
+ */
+public final class GpsFix {
+
+    private final long journeyId;
+    private final long timestamp;   // epoch millis
+    private final double latitude;
+    private final double longitude;
+    private final float speed;      // km/h
+    private final float heading;    // degrees
+    private final long receivedNanos; // System.nanoTime() when the server received it, for fix-to-alert latency
+
+    public GpsFix(long journeyId, long timestamp, double latitude, double longitude, float speed, float heading) {
+        this.journeyId = journeyId;
+        this.timestamp = timestamp;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.speed = speed;
+        this.heading = heading;
+        this.receivedNanos = System.nanoTime();
+    }
+
+    public long getJourneyId() { return journeyId; }
+    public long getTimestamp() { return timestamp; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public float getSpeed() { return speed; }
+    public float getHeading() { return heading; }
+    public long getReceivedNanos() { return receivedNanos; }
+}
@@ -0,0 +1,75 @@
+package train.local.fogpass.model;
+
+import train.local.fogpass.util.LongHashSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable copy of the whole Zone → Division → Section tree with parent and child indexes and the
+ * pre-serialized {@code /api/hierarchy} body. Built in one pass after a committed change and swapped in
+ * whole, so a reader always sees one consistent tree. The child id sets must not be modified.
+ */
+public final class HierarchySnapshot {
+
+    public record ZoneNode(long id, String name) {
+    }
+
+    public record DivisionNode(long id, String name, Long zoneId) {
+    }
+
+    public record SectionNode(long id, String name, Long divisionId) {
+    }
+
+    private static final LongHashSet NONE = new LongHashSet();
+
+    private final long generation;  // increases with every rebuild; keys derived caches
+    private final String version;   // content hash; identical trees always yield the same version
+    private final Map<Long, ZoneNode> zones;           // ordered by id
+    private final Map<Long, DivisionNode> divisions;   // ordered by id
+    private final Map<Long, SectionNode> sections;     // ordered by id
+    private final Map<Long, LongHashSet> divisionsByZone;
+    private final Map<Long, LongHashSet> sectionsByDivision;
+    private final byte[] json;
+    private final long builtAt;     // epoch millis
+
+    public HierarchySnapshot(long generation, String version,
+                             Map<Long, ZoneNode> zones, Map<Long, DivisionNode> divisions, Map<Long, SectionNode> sections,
+                             Map<Long, LongHashSet> divisionsByZone, Map<Long, LongHashSet> sectionsByDivision,
+                             byte[] json, long builtAt) {
+        this.generation = generation;
+        this.version = version;
+        this.zones = Collections.unmodifiableMap(zones);
+        this.divisions = Collections.unmodifiableMap(divisions);
+        this.sections = Collections.unmodifiableMap(sections);
+        this.divisionsByZone = Collections.unmodifiableMap(divisionsByZone);
+        this.sectionsByDivision = Collections.unmodifiableMap(sectionsByDivision);
+        this.json = json;
+        this.builtAt = builtAt;
+    }
+
+    public long getGeneration() { return generation; }
+    public String getVersion() { return version; }
+    public long getBuiltAt() { return builtAt; }
+
+    public Collection<ZoneNode> getZones() { return zones.values(); }
+    public Collection<DivisionNode> getDivisions() { return divisions.values(); }
+    public Collection<SectionNode> getSections() { return sections.values(); }
+
+    public ZoneNode getZone(long zoneId) { return zones.get(zoneId); }
+    public DivisionNode getDivision(long divisionId) { return divisions.get(divisionId); }
+    public SectionNode getSection(long sectionId) { return sections.get(sectionId); }
+
+    /** Ids of the zone's divisions (empty if none or unknown). */
+    public LongHashSet divisionsOf(long zoneId) { return divisionsByZone.getOrDefault(zoneId, NONE); }
+
+    /** Ids of the division's sections (empty if none or unknown). */
+    public LongHashSet sectionsOf(long divisionId) { return sectionsByDivision.getOrDefault(divisionId, NONE); }
+
+    /** The tree as served by {@code GET /api/hierarchy}; callers must not modify it. */
+    public byte[] getJson() { return json; }
+
+    /** Strong ETag derived from the version. */
+    public String getETag() { return "\"" + version + "\""; }
+}
@@ -0,0 +1,24 @@
+package train.local.fogpass.model;
+
+/**
+ * A journey_logs row waiting in the write-behind buffer.
+ */
+public final class JourneyLogRecord {
+
+    private final long journeyId;
+    private final long timestamp;   // epoch millis
+    private final String eventType;
+    private final String eventData; // JSON
+
+    public JourneyLogRecord(long journeyId, long timestamp, String eventType, String eventData) {
+        this.journeyId = journeyId;
+        this.timestamp = timestamp;
+        this.eventType = eventType;
+        this.eventData = eventData;
+    }
+
+    public long getJourneyId() { return journeyId; }
+    public long getTimestamp() { return timestamp; }
+    public String getEventType() { return eventType; }
+    public String getEventData() { return eventData; }
+}
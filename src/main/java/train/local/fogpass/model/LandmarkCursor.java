@@ -0,0 +1,147 @@
+package train.local.fogpass.model;
+
+/**
+ * Position of one journey along its route's landmark path.
+ *
+ * The cursor points at the next landmark the train has not yet passed. Each fix costs a couple of
+ * distance checks against that target and its successor; a landmark counts as passed only once the
+ * train has been close to it (or is demonstrably between it and the next one) and has since moved
+ * away by more than the jitter margin, so GPS noise around a landmark does not flip-flop the cursor.
+ *
+ * The last landmark has no successor to compare against, so it counts as passed once the train has
+ * been within its prewarning distance and has since receded by more than the at-landmark radius.
+ *
+ * After a gap in fixes (tunnels, signal loss) or when the train is far from where the cursor
+ * expects it, the cursor is re-acquired from the nearest path landmark, found through the route's
+ * grid. Away from every landmark the cursor stays unacquired and retries with the next fix.
+ *
+ * Not thread-safe: the GPS pipeline processes a journey's fixes on one worker at a time.
+ */
+public final class LandmarkCursor {
+
+    public static final class Settings {
+        private final int lookahead;
+        private final long gapMillis;
+        private final double reacquireDistance;
+        private final double jitterMargin;
+        private final double atLandmarkRadius;
+
+        public Settings(int lookahead, long gapMillis, double reacquireDistance, double jitterMargin, double atLandmarkRadius) {
+            this.lookahead = lookahead;
+            this.gapMillis = gapMillis;
+            this.reacquireDistance = reacquireDistance;
+            this.jitterMargin = jitterMargin;
+            this.atLandmarkRadius = atLandmarkRadius;
+        }
+
+        public int getLookahead() { return lookahead; }
+        public double getAtLandmarkRadius() { return atLandmarkRadius; }
+    }
+
+    private final long journeyId;
+    private final Long routeId; // null when the journey has no route: the cursor never yields landmarks
+
+    private RouteLandmarks route;   // snapshot the position refers to
+    private int position = -1;      // index into route path; -1 = not acquired
+    private double closest = Double.MAX_VALUE; // closest approach to the current target so far
+    private long lastFixTime;
+    private long reacquisitions;
+
+    public LandmarkCursor(long journeyId, Long routeId) {
+        this.journeyId = journeyId;
+        this.routeId = routeId;
+    }
+
+    /**
+     * Advance the cursor with a fix. {@code current} is the route's current index snapshot; a rebuilt
+     * snapshot forces re-acquisition since path positions may have shifted.
+     * Returns the number of landmarks passed by this fix (0 on (re-)acquisition).
+     */
+    public int advance(RouteLandmarks current, double lat, double lon, long timestamp, Settings settings) {
+        if (current.pathLength() == 0) {
+            route = current;
+            position = -1;
+            return 0;
+        }
+        boolean gap = lastFixTime != 0 && timestamp - lastFixTime > settings.gapMillis;
+        if (timestamp > lastFixTime) lastFixTime = timestamp;
+
+        if (route != current || position < 0 || gap) {
+            acquire(current, lat, lon, settings);
+            return 0;
+        }
+        if (position >= route.pathLength()) {
+            return 0; // end of route
+        }
+
+        int passed = 0;
+        // Bounded: a 1 Hz train cannot legitimately pass more than a few landmarks between fixes
+        while (position < route.pathLength() && passed <= settings.lookahead) {
+            int target = route.pathAt(position);
+            double d = route.distanceMeters(target, lat, lon);
+            if (passed == 0 && d > settings.reacquireDistance && d > closest + settings.reacquireDistance) {
+                acquire(route, lat, lon, settings);
+                return 0;
+            }
+            if (d < closest) closest = d;
+            if (!isPassed(target, d, lat, lon, settings)) break;
+            position++;
+            closest = Double.MAX_VALUE;
+            passed++;
+        }
+        return passed;
+    }
+
+    private boolean isPassed(int target, double d, double lat, double lon, Settings settings) {
+        if (d <= closest + settings.jitterMargin) return false; // still approaching (or jitter)
+        if (closest <= settings.atLandmarkRadius) return true;  // was at the landmark, now moving away
+        if (position + 1 < route.pathLength()) {
+            // Never came within the at-landmark radius (e.g. sparse fixes), but now closer to the
+            // next landmark than the target itself is: the target is behind us.
+            int next = route.pathAt(position + 1);
+            return route.distanceMeters(next, lat, lon) < route.distanceBetween(target, next);
+        }
+        // Last landmark, passed wide of the at-landmark radius: judged by distance from it alone
+        return closest <= route.getPrewarningDistance(target) && d > closest + settings.atLandmarkRadius;
+    }
+
+    // Locate the train on the path: nearest landmark, then decide whether it is ahead or behind
+    private void acquire(RouteLandmarks current, double lat, double lon, Settings settings) {
+        route = current;
+        closest = Double.MAX_VALUE;
+        double radius = Math.max(settings.reacquireDistance, current.getMaxPrewarningDistance());
+        int best = current.nearestOnPath(lat, lon, radius);
+        if (best < 0) {
+            position = -1; // no landmark within reach: nothing can alert yet
+            return;
+        }
+        double bestDist = current.distanceMeters(current.pathAt(best), lat, lon);
+        if (best + 1 < current.pathLength()) {
+            int nearest = current.pathAt(best);
+            int next = current.pathAt(best + 1);
+            if (bestDist > 0 && current.distanceMeters(next, lat, lon) < current.distanceBetween(nearest, next)) {
+                best++; // between nearest and next: nearest is already behind
+            }
+        }
+        position = best;
+        reacquisitions++;
+    }
+
+    /** Path positions of the landmarks at and after the cursor, at most {@code lookahead} of them. */
+    public int upcomingCount(Settings settings) {
+        if (route == null || position < 0) return 0;
+        return Math.max(0, Math.min(settings.lookahead, route.pathLength() - position));
+    }
+
+    /** Landmark index (into {@link #getRoute()}) of the k-th upcoming landmark. */
+    public int upcoming(int k) {
+        return route.pathAt(position + k);
+    }
+
+    public long getJourneyId() { return journeyId; }
+    public Long getRouteId() { return routeId; }
+    public RouteLandmarks getRoute() { return route; }
+    public int getPosition() { return position; }
+    public long getLastFixTime() { return lastFixTime; }
+    public long getReacquisitions() { return reacquisitions; }
+}
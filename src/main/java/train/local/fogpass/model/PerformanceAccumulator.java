@@ -0,0 +1,157 @@
+package train.local.fogpass.model;
+
+/**
+ * Running aggregates for one journey, updated per processed fix so the performance summary never
+ * needs a scan of the journey's log.
+ *
+ * Speed is treated as constant between consecutive fixes (sample-and-hold), so every aggregate is a
+ * time-weighted sum over the intervals seen so far. Written by the GPS worker that holds the journey,
+ * read by API threads; the monitor keeps a {@link #snapshot()} consistent.
+ *
+ * Fixes can arrive late: after a signal loss the first live fix may be processed before the
+ * store-and-forward backlog. Every interval longer than {@link #GAP_MILLIS} is remembered (the last
+ * {@link #MAX_GAPS} of them), and a late fix inside one splits it: the part after the fix is re-counted at
+ * the late fix's speed and stays remembered for the rest of the backlog. A late fix that falls anywhere
+ * else cannot be placed and makes the accumulator inexact ({@link #isExact()}), so the caller can
+ * recompute from the stored track instead.
+ */
+public final class PerformanceAccumulator {
+
+    /** Below this speed (km/h) the train counts as standing. */
+    public static final float STOPPED_BELOW_KMH = 1.0f;
+
+    public record Snapshot(long fixes, long firstTs, long lastTs, long stoppedMillis, long overspeedMillis,
+                           double speedMillisSum, float maxSpeed, int alerts) {
+        public long durationMillis() { return fixes < 2 ? 0 : lastTs - firstTs; }
+    }
+
+    /** Intervals longer than this are remembered so late fixes inside them can be merged. */
+    public static final long GAP_MILLIS = 5_000;
+    static final int MAX_GAPS = 32;
+
+    private final Integer authorizedSpeed; // km/h; null when the journey has none
+
+    private long fixes;
+    private long firstTs;
+    private long lastTs;
+    private float lastSpeed;
+    private long stoppedMillis;
+    private long overspeedMillis;
+    private double speedMillisSum;
+    private float maxSpeed;
+    private int alerts;
+
+    // Remembered long intervals, ascending by start: [gapStart, gapEnd) counted at gapSpeed
+    private final long[] gapStart = new long[MAX_GAPS];
+    private final long[] gapEnd = new long[MAX_GAPS];
+    private final float[] gapSpeed = new float[MAX_GAPS];
+    private int gaps;
+    private long lateFixes;
+    private long unplacedFixes;
+
+    public PerformanceAccumulator(Integer authorizedSpeed) {
+        this.authorizedSpeed = authorizedSpeed;
+    }
+
+    public synchronized void addFix(long ts, float speedKmh) {
+        if (fixes == 0) {
+            firstTs = ts;
+        } else {
+            long dt = ts - lastTs;
+            if (dt == 0) return; // duplicate
+            if (dt < 0) {
+                addLate(ts, speedKmh);
+                return;
+            }
+            count(lastSpeed, dt, 1);
+            if (dt > GAP_MILLIS) addGap(lastTs, ts, lastSpeed, gaps);
+        }
+        lastTs = ts;
+        lastSpeed = speedKmh;
+        maxSpeed = Math.max(maxSpeed, speedKmh);
+        fixes++;
+    }
+
+    // A fix older than the last one: re-split the remembered interval it falls into
+    private void addLate(long ts, float speedKmh) {
+        if (ts == firstTs) return; // duplicate
+        lateFixes++;
+        if (ts < firstTs) {
+            // Before everything seen so far: a new first interval [ts, firstTs) at this fix's speed
+            count(speedKmh, firstTs - ts, 1);
+            if (firstTs - ts > GAP_MILLIS) addGap(ts, firstTs, speedKmh, 0);
+            firstTs = ts;
+        } else {
+            int g = 0;
+            while (g < gaps && !(gapStart[g] < ts && ts < gapEnd[g])) {
+                if (ts == gapStart[g] || ts == gapEnd[g]) return; // a gap's bounds are fixes already counted
+                g++;
+            }
+            if (g == gaps) {
+                // Inside a short or forgotten interval, or a duplicate of a fix already counted
+                unplacedFixes++;
+                maxSpeed = Math.max(maxSpeed, speedKmh);
+                return;
+            }
+            long start = gapStart[g];
+            long end = gapEnd[g];
+            float before = gapSpeed[g];
+            // [ts, end) was counted at the speed from `start`; it now holds this fix's speed
+            count(before, end - ts, -1);
+            count(speedKmh, end - ts, 1);
+            // A backlog arrives oldest first, so the rest of it lands in [ts, end): always keep that part
+            gapStart[g] = ts;
+            gapSpeed[g] = speedKmh;
+            if (ts - start > GAP_MILLIS) addGap(start, ts, before, g);
+        }
+        maxSpeed = Math.max(maxSpeed, speedKmh);
+        fixes++;
+    }
+
+    // Adds (sign 1) or removes (sign -1) `millis` held at `speed`
+    private void count(float speed, long millis, int sign) {
+        speedMillisSum += sign * (double) speed * millis;
+        if (speed < STOPPED_BELOW_KMH) stoppedMillis += sign * millis;
+        if (authorizedSpeed != null && speed > authorizedSpeed) overspeedMillis += sign * millis;
+    }
+
+    // Inserts at index `at` (keeping starts ascending); when full the oldest gap is forgotten
+    private void addGap(long start, long end, float speed, int at) {
+        if (gaps == MAX_GAPS) {
+            if (at == 0) return; // older than every remembered gap
+            removeGap(0);
+            at--;
+        }
+        System.arraycopy(gapStart, at, gapStart, at + 1, gaps - at);
+        System.arraycopy(gapEnd, at, gapEnd, at + 1, gaps - at);
+        System.arraycopy(gapSpeed, at, gapSpeed, at + 1, gaps - at);
+        gapStart[at] = start;
+        gapEnd[at] = end;
+        gapSpeed[at] = speed;
+        gaps++;
+    }
+
+    private void removeGap(int g) {
+        System.arraycopy(gapStart, g + 1, gapStart, g, gaps - g - 1);
+        System.arraycopy(gapEnd, g + 1, gapEnd, g, gaps - g - 1);
+        System.arraycopy(gapSpeed, g + 1, gapSpeed, g, gaps - g - 1);
+        gaps--;
+    }
+
+    public synchronized void addAlerts(int count) {
+        alerts += count;
+    }
+
+    /** False once a late fix could not be merged; the aggregates then hold the interval's earlier speed there. */
+    public synchronized boolean isExact() {
+        return unplacedFixes == 0;
+    }
+
+    public synchronized long getLateFixes() {
+        return lateFixes;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(fixes, firstTs, lastTs, stoppedMillis, overspeedMillis, speedMillisSum, maxSpeed, alerts);
+    }
+}
@@ -0,0 +1,272 @@
+package train.local.fogpass.model;
+
+import train.local.fogpass.entity.Landmark;
+import train.local.fogpass.util.DistanceCalculator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, read-optimised snapshot of one route's landmarks.
+ *
+ * Landmarks are stored column-wise in primitive arrays in sequence order, so "landmark i" is simply
+ * index i everywhere. Coordinates are converted from BigDecimal once, at build time, into radians
+ * (plus the cosine of each latitude) so distance checks are pure double arithmetic.
+ *
+ * A uniform lat/lon grid (cell size = largest prewarning distance) is stored in CSR form: sorted
+ * cell keys, start offsets and member indices. Proximity queries and cursor acquisition
+ * binary-search only the cells around the point, without allocating or touching the database.
+ *
+ * {@code path} lists, in sequence order, the landmarks that apply to the route's direction
+ * (a landmark with no direction, or "BOTH", applies to either); journey cursors walk this path.
+ */
+public final class RouteLandmarks {
+
+    private final long routeId;
+    private final String routeDirection;
+    private final int[] path;
+    private final int[] pathPosition; // landmark index -> position in path, -1 if not on it
+
+    // Column storage, index = position in sequence order
+    private final long[] ids;
+    private final int[] sequenceOrders;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] latRad;
+    private final double[] lonRad;
+    private final double[] cosLat;
+    private final int[] prewarningDistances;
+    private final String[] landmarkTypes;
+    private final String[] directions;
+    private final String[] names;
+    private final String[] locationCodes;
+
+    // Grid in CSR form
+    private final double cellDeg;
+    private final int maxRadius;
+    private final long[] cellKeys;
+    private final int[] cellStart;   // length = cellKeys.length + 1
+    private final int[] cellMembers;
+
+    private RouteLandmarks(long routeId, String routeDirection, List<Landmark> landmarks, int defaultPrewarning) {
+        int n = landmarks.size();
+        this.routeId = routeId;
+        this.routeDirection = routeDirection;
+        this.ids = new long[n];
+        this.sequenceOrders = new int[n];
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        this.latRad = new double[n];
+        this.lonRad = new double[n];
+        this.cosLat = new double[n];
+        this.prewarningDistances = new int[n];
+        this.landmarkTypes = new String[n];
+        this.directions = new String[n];
+        this.names = new String[n];
+        this.locationCodes = new String[n];
+
+        int max = 1;
+        for (int i = 0; i < n; i++) {
+            Landmark l = landmarks.get(i);
+            ids[i] = l.getId();
+            sequenceOrders[i] = l.getSequenceOrder() != null ? l.getSequenceOrder() : Integer.MAX_VALUE;
+            latitudes[i] = l.getLatitude().doubleValue();
+            longitudes[i] = l.getLongitude().doubleValue();
+            latRad[i] = Math.toRadians(latitudes[i]);
+            lonRad[i] = Math.toRadians(longitudes[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+            prewarningDistances[i] = l.getPrewarningDistance() != null ? l.getPrewarningDistance() : defaultPrewarning;
+            landmarkTypes[i] = l.getLandmarkType();
+            directions[i] = l.getDirection();
+            names[i] = l.getName();
+            locationCodes[i] = l.getLocationCode();
+            max = Math.max(max, prewarningDistances[i]);
+        }
+        this.maxRadius = max;
+
+        int[] applicable = new int[n];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            if (appliesTo(directions[i], routeDirection)) applicable[p++] = i;
+        }
+        this.path = Arrays.copyOf(applicable, p);
+        this.pathPosition = new int[n];
+        Arrays.fill(pathPosition, -1);
+        for (int k = 0; k < path.length; k++) pathPosition[path[k]] = k;
+
+        this.cellDeg = max / DistanceCalculator.METERS_PER_DEGREE_LAT;
+
+        // Sort landmark indices by cell key, then collapse runs into CSR buckets
+        long[] keyed = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keyed[i] = cellKey(cell(latitudes[i]), cell(longitudes[i]));
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keyed[a], keyed[b]));
+
+        long[] keys = new long[n];
+        int[] start = new int[n + 1];
+        int[] members = new int[n];
+        int cells = 0;
+        for (int k = 0; k < n; k++) {
+            int idx = order[k];
+            if (cells == 0 || keys[cells - 1] != keyed[idx]) {
+                keys[cells] = keyed[idx];
+                start[cells] = k;
+                cells++;
+            }
+            members[k] = idx;
+        }
+        start[cells] = n;
+        this.cellKeys = Arrays.copyOf(keys, cells);
+        this.cellStart = Arrays.copyOf(start, cells + 1);
+        this.cellMembers = members;
+    }
+
+    /**
+     * Build an index from landmarks already sorted by sequence order (as returned by
+     * {@code LandmarkRepository.findByRoute_IdOrderBySequenceOrderAsc}). Rows without coordinates are skipped.
+     */
+    public static RouteLandmarks build(long routeId, String routeDirection, List<Landmark> landmarks, int defaultPrewarning) {
+        List<Landmark> located = new ArrayList<>(landmarks.size());
+        for (Landmark l : landmarks) {
+            if (l.getLatitude() != null && l.getLongitude() != null) located.add(l);
+        }
+        return new RouteLandmarks(routeId, routeDirection, located, defaultPrewarning);
+    }
+
+    private static boolean appliesTo(String landmarkDirection, String routeDirection) {
+        if (landmarkDirection == null || landmarkDirection.isBlank() || "BOTH".equalsIgnoreCase(landmarkDirection)) return true;
+        if (routeDirection == null || routeDirection.isBlank()) return true;
+        return landmarkDirection.trim().equalsIgnoreCase(routeDirection.trim());
+    }
+
+    /**
+     * Write the indices of landmarks whose own prewarning circle contains (lat, lon) into {@code out}, in
+     * sequence order, and return how many there are. If that exceeds {@code out.length}, only the first
+     * {@code out.length} matches found were written (not necessarily the lowest); retry with a buffer of
+     * the returned size.
+     */
+    public int withinPrewarning(double lat, double lon, int[] out) {
+        if (cellKeys.length == 0) return 0;
+        int latCell = cell(lat);
+        int lonCell = cell(lon);
+        double qLat = Math.toRadians(lat);
+        double qLon = Math.toRadians(lon);
+        double qCos = Math.cos(qLat);
+        // A cell spans maxRadius meters of latitude but fewer meters of longitude away from the equator
+        double metersPerDegLon = DistanceCalculator.METERS_PER_DEGREE_LAT * qCos;
+        int lonSpan = (int) Math.ceil(maxRadius / Math.max(metersPerDegLon, 1.0) / cellDeg);
+
+        int count = 0;
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -lonSpan; dLon <= lonSpan; dLon++) {
+                int c = Arrays.binarySearch(cellKeys, cellKey(latCell + dLat, lonCell + dLon));
+                if (c < 0) continue;
+                for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                    int i = cellMembers[k];
+                    if (DistanceCalculator.isWithin(qLat, qLon, qCos, latRad[i], lonRad[i], cosLat[i], prewarningDistances[i])) {
+                        if (count < out.length) out[count] = i;
+                        count++;
+                    }
+                }
+            }
+        }
+        Arrays.sort(out, 0, Math.min(count, out.length));
+        return count;
+    }
+
+    /**
+     * Path position of the path landmark nearest to (lat, lon) within {@code maxMeters}, or -1 if there is
+     * none. Probes only the grid cells that the radius covers; when those outnumber the occupied cells
+     * (small routes, very large radius) every landmark is checked instead.
+     */
+    public int nearestOnPath(double lat, double lon, double maxMeters) {
+        if (path.length == 0) return -1;
+        double qLat = Math.toRadians(lat);
+        double qLon = Math.toRadians(lon);
+        double qCos = Math.cos(qLat);
+        double metersPerDegLon = DistanceCalculator.METERS_PER_DEGREE_LAT * qCos;
+        long latSpan = (long) Math.ceil(maxMeters / DistanceCalculator.METERS_PER_DEGREE_LAT / cellDeg);
+        long lonSpan = (long) Math.ceil(maxMeters / Math.max(metersPerDegLon, 1.0) / cellDeg);
+
+        int best = -1;
+        double bestDist = Double.MAX_VALUE;
+        if ((2 * latSpan + 1) * (2 * lonSpan + 1) > cellKeys.length) {
+            for (int k = 0; k < path.length; k++) {
+                int i = path[k];
+                double d = DistanceCalculator.haversineRad(qLat, qLon, qCos, latRad[i], lonRad[i], cosLat[i]);
+                if (d < bestDist) {
+                    bestDist = d;
+                    best = k;
+                }
+            }
+            return bestDist <= maxMeters ? best : -1;
+        }
+
+        int latCell = cell(lat);
+        int lonCell = cell(lon);
+        for (int dLat = (int) -latSpan; dLat <= latSpan; dLat++) {
+            for (int dLon = (int) -lonSpan; dLon <= lonSpan; dLon++) {
+                int c = Arrays.binarySearch(cellKeys, cellKey(latCell + dLat, lonCell + dLon));
+                if (c < 0) continue;
+                for (int m = cellStart[c]; m < cellStart[c + 1]; m++) {
+                    int i = cellMembers[m];
+                    int k = pathPosition[i];
+                    if (k < 0) continue;
+                    double d = DistanceCalculator.haversineRad(qLat, qLon, qCos, latRad[i], lonRad[i], cosLat[i]);
+                    if (d < bestDist || (d == bestDist && k < best)) {
+                        bestDist = d;
+                        best = k;
+                    }
+                }
+            }
+        }
+        return bestDist <= maxMeters ? best : -1;
+    }
+
+    /**
+     * Whether landmark i is at most {@code limitMeters} from the point, given in radians with its latitude's
+     * cosine; settled by the equirectangular fast path in almost every case.
+     */
+    public boolean isWithin(int i, double latRad, double lonRad, double cosLat, double limitMeters) {
+        return DistanceCalculator.isWithin(latRad, lonRad, cosLat, this.latRad[i], this.lonRad[i], this.cosLat[i], limitMeters);
+    }
+
+    // Distance in meters from (lat, lon) to landmark i
+    public double distanceMeters(int i, double lat, double lon) {
+        double qLat = Math.toRadians(lat);
+        return DistanceCalculator.haversineRad(qLat, Math.toRadians(lon), Math.cos(qLat), latRad[i], lonRad[i], cosLat[i]);
+    }
+
+    // Distance in meters between landmarks i and j
+    public double distanceBetween(int i, int j) {
+        return DistanceCalculator.haversineRad(latRad[i], lonRad[i], cosLat[i], latRad[j], lonRad[j], cosLat[j]);
+    }
+
+    private int cell(double deg) {
+        return (int) Math.floor(deg / cellDeg);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    public long getRouteId() { return routeId; }
+    public String getRouteDirection() { return routeDirection; }
+    public int size() { return ids.length; }
+    public int pathLength() { return path.length; }
+    public int pathAt(int position) { return path[position]; }
+    public int getMaxPrewarningDistance() { return maxRadius; }
+    public long getId(int i) { return ids[i]; }
+    public int getSequenceOrder(int i) { return sequenceOrders[i]; }
+    public double getLatitude(int i) { return latitudes[i]; }
+    public double getLongitude(int i) { return longitudes[i]; }
+    public int getPrewarningDistance(int i) { return prewarningDistances[i]; }
+    public String getLandmarkType(int i) { return landmarkTypes[i]; }
+    public String getDirection(int i) { return directions[i]; }
+    public String getName(int i) { return names[i]; }
+    public String getLocationCode(int i) { return locationCodes[i]; }
+}
@@ -0,0 +1,44 @@
+package train.local.fogpass.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A route's offline data package, built once per route change and served from memory as-is.
+ */
+public final class RoutePackage {
+
+    private final long routeId;
+    private final String version;   // content hash; identical data always yields the same version
+    private final byte[] gzipped;
+    private final int rawSize;
+    private final long builtAt;     // epoch millis
+
+    public RoutePackage(long routeId, String version, byte[] gzipped, int rawSize, long builtAt) {
+        this.routeId = routeId;
+        this.version = version;
+        this.gzipped = gzipped;
+        this.rawSize = rawSize;
+        this.builtAt = builtAt;
+    }
+
+    public long getRouteId() { return routeId; }
+    public String getVersion() { return version; }
+    public byte[] getGzipped() { return gzipped; }
+    public int getRawSize() { return rawSize; }
+    public long getBuiltAt() { return builtAt; }
+
+    /** The package JSON, for the rare client that doesn't accept gzip. */
+    public byte[] readUncompressed() {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Strong ETag derived from the version. */
+    public String getETag() { return "\"" + version + "\""; }
+}
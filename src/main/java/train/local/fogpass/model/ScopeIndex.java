@@ -0,0 +1,42 @@
+package train.local.fogpass.model;
+
+import train.local.fogpass.util.LongHashSet;
+
+/**
+ * What one principal may manage, with zone → division → section containment already resolved:
+ * a zone admin's division and section sets include everything under their zones, and so on.
+ * A scope check is then at most three hash lookups. Immutable once built.
+ */
+public final class ScopeIndex {
+
+    private static final ScopeIndex UNRESTRICTED = new ScopeIndex(true, new LongHashSet(), new LongHashSet(), new LongHashSet());
+
+    private final boolean unrestricted;
+    private final LongHashSet zones;      // zone-level grants only
+    private final LongHashSet divisions;  // division grants plus divisions of granted zones
+    private final LongHashSet sections;   // section grants plus sections of granted divisions
+
+    public ScopeIndex(boolean unrestricted, LongHashSet zones, LongHashSet divisions, LongHashSet sections) {
+        this.unrestricted = unrestricted;
+        this.zones = zones;
+        this.divisions = divisions;
+        this.sections = sections;
+    }
+
+    public static ScopeIndex unrestricted() { return UNRESTRICTED; }
+
+    /** SUPER_ADMIN: every scope is allowed and lists are not filtered. */
+    public boolean isUnrestricted() { return unrestricted; }
+
+    /** True if a scope assignment with these ids falls within this index. */
+    public boolean allows(Long zoneId, Long divisionId, Long sectionId) {
+        if (unrestricted) return true;
+        return (zoneId != null && zones.contains(zoneId))
+                || (divisionId != null && divisions.contains(divisionId))
+                || (sectionId != null && sections.contains(sectionId));
+    }
+
+    public LongHashSet getZones() { return zones; }
+    public LongHashSet getDivisions() { return divisions; }
+    public LongHashSet getSections() { return sections; }
+}
@@ -0,0 +1,10 @@
+package train.local.fogpass.model;
+
+/**
+ * Receives track points one at a time in their fixed-point form (see {@link train.local.fogpass.util.FixEncoding}),
+ * so a track can be replayed from rows or from an archive without an object per point.
+ */
+@FunctionalInterface
+public interface TrackPointSink {
+    void accept(long ts, int latE7, int lonE7, short speedTenths, short headingTenths);
+}
@@ -1,10 +1,23 @@
 package train.local.fogpass.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import train.local.fogpass.dto.response.DivisionResponse;
 import train.local.fogpass.entity.Division;
 import java.util.List;
 
 public interface DivisionRepository extends JpaRepository<Division, Long> {
     // Custom finder: get all divisions under a zone (via Zone.zoneId field)
     List<Division> findByZoneZoneId(Long zoneId);
+
+    // Read DTOs with the zone joined in the same statement instead of a lazy load per division
+    @Query("select new train.local.fogpass.dto.response.DivisionResponse(d.id, d.name, z.zoneId, z.zonename, "
+            + "d.createdBy, d.createdDate, d.updatedBy, d.updatedDate) from Division d left join d.zone z order by d.id")
+    List<DivisionResponse> findAllResponses();
+
+    @Query("select new train.local.fogpass.dto.response.DivisionResponse(d.id, d.name, z.zoneId, z.zonename, "
+            + "d.createdBy, d.createdDate, d.updatedBy, d.updatedDate) from Division d join d.zone z "
+            + "where z.zoneId = :zoneId order by d.id")
+    List<DivisionResponse> findResponsesByZoneId(@Param("zoneId") Long zoneId);
 }
@@ -0,0 +1,142 @@
+package train.local.fogpass.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import train.local.fogpass.entity.Division;
+import train.local.fogpass.entity.Section;
+import train.local.fogpass.entity.Zone;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk inserts for zones, divisions and sections as JDBC batches.
+ *
+ * With IDENTITY ids Hibernate cannot batch inserts and sends one INSERT round trip per entity; here each
+ * chunk is a single batch, which rewriteBatchedStatements=true on the datasource URL turns into one
+ * multi-row INSERT. Auditing columns are filled the way the JPA auditing listener would (creator and
+ * last modifier are the current auditor, both dates are now) and the generated ids are set on the passed
+ * entities. Call within a transaction so a failing chunk rolls back the whole request.
+ */
+@Repository
+public class HierarchyBulkInsertRepository {
+
+    private static final String INSERT_ZONE =
+            "INSERT INTO zones (zone_name, created_by, created_date, updated_by, updated_date) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_DIVISION =
+            "INSERT INTO divisions (name, zone_id, created_by, created_date, updated_by, updated_date) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SECTION =
+            "INSERT INTO sections (name, division_id, created_by, created_date, updated_by, updated_date) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<String> auditorAware;
+    private final int batchSize;
+
+    public HierarchyBulkInsertRepository(JdbcTemplate jdbcTemplate,
+                                         AuditorAware<String> auditorAware,
+                                         @Value("${app.hierarchy.bulk-insert.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorAware = auditorAware;
+        this.batchSize = batchSize;
+    }
+
+    public List<Zone> insertZones(List<Zone> zones) {
+        Audit audit = currentAudit();
+        insert(INSERT_ZONE, zones, audit, 1, (ps, z) -> ps.setString(1, z.getZonename()), Zone::setZoneId);
+        for (Zone z : zones) {
+            z.setCreatedBy(audit.auditor());
+            z.setCreatedDate(audit.now());
+            z.setUpdatedBy(audit.auditor());
+            z.setUpdatedDate(audit.now());
+        }
+        return zones;
+    }
+
+    public List<Division> insertDivisions(List<Division> divisions) {
+        Audit audit = currentAudit();
+        insert(INSERT_DIVISION, divisions, audit, 2, (ps, d) -> {
+            ps.setString(1, d.getName());
+            ps.setObject(2, d.getZoneId(), Types.BIGINT);
+        }, Division::setId);
+        for (Division d : divisions) {
+            d.setCreatedBy(audit.auditor());
+            d.setCreatedDate(audit.now());
+            d.setUpdatedBy(audit.auditor());
+            d.setUpdatedDate(audit.now());
+        }
+        return divisions;
+    }
+
+    public List<Section> insertSections(List<Section> sections) {
+        Audit audit = currentAudit();
+        insert(INSERT_SECTION, sections, audit, 2, (ps, s) -> {
+            ps.setString(1, s.getName());
+            ps.setObject(2, s.getDivisionId(), Types.BIGINT);
+        }, Section::setId);
+        for (Section s : sections) {
+            s.setCreatedBy(audit.auditor());
+            s.setCreatedDate(audit.now());
+            s.setUpdatedBy(audit.auditor());
+            s.setUpdatedDate(audit.now());
+        }
+        return sections;
+    }
+
+    // One auditor and timestamp for the whole request, as the auditing listener would produce per row
+    private record Audit(String auditor, Instant now) {
+    }
+
+    private Audit currentAudit() {
+        return new Audit(auditorAware.getCurrentAuditor().orElse(null), Instant.now());
+    }
+
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    // Binds the row's own `columns` first, then created_by, created_date, updated_by, updated_date
+    private <T> void insert(String sql, List<T> rows, Audit audit, int columns, RowBinder<T> binder,
+                            BiConsumer<T, Long> setId) {
+        Timestamp now = Timestamp.from(audit.now());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC")); // as Hibernate binds Instant
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<T> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            binder.bind(ps, chunk.get(i));
+                            ps.setString(columns + 1, audit.auditor());
+                            ps.setTimestamp(columns + 2, now, utc);
+                            ps.setString(columns + 3, audit.auditor());
+                            ps.setTimestamp(columns + 4, now, utc);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }, keys);
+            // MySQL returns the generated ids of a batch in statement order
+            List<Map<String, Object>> generated = keys.getKeyList();
+            for (int i = 0; i < chunk.size(); i++) {
+                setId.accept(chunk.get(i), ((Number) generated.get(i).values().iterator().next()).longValue());
+            }
+        }
+    }
+}
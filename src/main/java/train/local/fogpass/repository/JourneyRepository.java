@@ -1,3 +1,19 @@
 package train.local.fogpass.repository;
 
-public interface JourneyRepository {}
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import train.local.fogpass.entity.Journey;
+
+import java.util.Optional;
+
+@Repository
+public interface JourneyRepository extends JpaRepository<Journey, Long> {
+    // Route FK only, without loading the journey or route
+    @Query("select j.route.id from Journey j where j.id = :id")
+    Optional<Long> findRouteIdById(@Param("id") Long id);
+
+    @Query("select j.authorizedSpeed from Journey j where j.id = :id")
+    Optional<Integer> findAuthorizedSpeedById(@Param("id") Long id);
+}
@@ -1,3 +1,13 @@
 package train.local.fogpass.repository;
 
-public interface LandmarkRepository {}
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import train.local.fogpass.entity.Landmark;
+
+import java.util.List;
+
+@Repository
+public interface LandmarkRepository extends JpaRepository<Landmark, Long> {
+    // Served by idx_landmarks_route_seq (route_id, sequence_order)
+    List<Landmark> findByRoute_IdOrderBySequenceOrderAsc(Long routeId);
+}
@@ -0,0 +1,9 @@
+package train.local.fogpass.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import train.local.fogpass.entity.RescoreJob;
+
+@Repository
+public interface RescoreJobRepository extends JpaRepository<RescoreJob, Long> {
+}
@@ -1,3 +1,15 @@
 package train.local.fogpass.repository;
 
-public interface RouteRepository {}
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import train.local.fogpass.entity.Route;
+
+import java.util.List;
+
+@Repository
+public interface RouteRepository extends JpaRepository<Route, Long> {
+
+    @Query("select r.id from Route r")
+    List<Long> findAllIds();
+}
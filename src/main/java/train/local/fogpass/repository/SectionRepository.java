@@ -1,7 +1,10 @@
 package train.local.fogpass.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import train.local.fogpass.dto.response.SectionResponse;
 import train.local.fogpass.entity.Section;
 
 import java.util.List;
@@ -10,4 +13,13 @@ import java.util.List;
 public interface SectionRepository extends JpaRepository<Section, Long> {
     // Traverse association: Section.division.id
     List<Section> findByDivision_Id(Long divisionId);
+
+    // Read DTOs: only the division id is read, so neither the division nor routes are loaded
+    @Query("select new train.local.fogpass.dto.response.SectionResponse(s.id, s.name, s.division.id, s.createdBy, "
+            + "s.createdDate, s.updatedBy, s.updatedDate) from Section s order by s.id")
+    List<SectionResponse> findAllResponses();
+
+    @Query("select new train.local.fogpass.dto.response.SectionResponse(s.id, s.name, s.division.id, s.createdBy, "
+            + "s.createdDate, s.updatedBy, s.updatedDate) from Section s where s.division.id = :divisionId order by s.id")
+    List<SectionResponse> findResponsesByDivisionId(@Param("divisionId") Long divisionId);
 }
\ No newline at end of file
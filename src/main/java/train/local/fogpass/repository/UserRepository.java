@@ -1,10 +1,15 @@
 package train.local.fogpass.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import train.local.fogpass.entity.User;
+import train.local.fogpass.mapping.projectionmapping;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +27,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = {"accessScopes", "accessScopes.role"})
     List<User> findAll();
 
+    // Users holding at least one scope inside the given id sets; containment is pre-resolved by ScopeIndex
+    @EntityGraph(attributePaths = {"accessScopes", "accessScopes.role"})
+    @Query("select u from User u where exists (select 1 from UserAccessScope s where s.user = u and "
+            + "(s.zoneId in :zoneIds or s.divisionId in :divisionIds or s.sectionId in :sectionIds))")
+    List<User> findAllInScope(@Param("zoneIds") Collection<Long> zoneIds,
+                              @Param("divisionIds") Collection<Long> divisionIds,
+                              @Param("sectionIds") Collection<Long> sectionIds);
+
+    // Keyset page ordered by id: seeks past afterId on the primary key instead of skipping an OFFSET
+    @Query("select u.id as id, u.username as username, u.userId as userId, u.locoPilotId as locoPilotId, "
+            + "u.dateOfBirth as dateOfBirth, u.designation as designation, u.department as department, "
+            + "u.active as active, u.mobNo as mobNo from User u "
+            + "where u.id > :afterId "
+            + "and (:active is null or u.active = :active) "
+            + "and (:designation is null or u.designation = :designation) "
+            + "and (:zoneId is null or exists (select 1 from UserAccessScope s where s.user = u and s.zoneId = :zoneId)) "
+            + "and (:divisionId is null or exists (select 1 from UserAccessScope s where s.user = u and s.divisionId = :divisionId)) "
+            + "and (:sectionId is null or exists (select 1 from UserAccessScope s where s.user = u and s.sectionId = :sectionId)) "
+            + "and (:unrestricted = true or exists (select 1 from UserAccessScope s where s.user = u and "
+            + "(s.zoneId in :zoneIds or s.divisionId in :divisionIds or s.sectionId in :sectionIds))) "
+            + "order by u.id")
+    List<projectionmapping.UserRow> findPage(@Param("afterId") long afterId,
+                                             @Param("active") Boolean active,
+                                             @Param("designation") String designation,
+                                             @Param("zoneId") Long zoneId,
+                                             @Param("divisionId") Long divisionId,
+                                             @Param("sectionId") Long sectionId,
+                                             @Param("unrestricted") boolean unrestricted,
+                                             @Param("zoneIds") Collection<Long> zoneIds,
+                                             @Param("divisionIds") Collection<Long> divisionIds,
+                                             @Param("sectionIds") Collection<Long> sectionIds,
+                                             Limit limit);
+
+    @Query("select s.user.id as userId, r.name as roleName, s.zoneId as zoneId, s.divisionId as divisionId, "
+            + "s.sectionId as sectionId from UserAccessScope s left join s.role r where s.user.id in :userIds")
+    List<projectionmapping.UserScopeRow> findScopesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("select u.username from User u where u.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
     // For validations used in services
     boolean existsByUsername(String username);
     boolean existsByUserId(Long userId);
@@ -1,10 +1,19 @@
 package train.local.fogpass.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import train.local.fogpass.dto.response.ZoneResponse;
 import train.local.fogpass.entity.Zone;
 
+import java.util.List;
+
 @Repository
 public interface ZonesRepository extends JpaRepository<Zone, Long> {
     boolean existsByZonename(String zonename);
+
+    // Read DTOs: one statement, never touches the lazy divisions collection
+    @Query("select new train.local.fogpass.dto.response.ZoneResponse(z.zoneId, z.zonename, z.createdBy, z.createdDate, "
+            + "z.updatedBy, z.updatedDate) from Zone z order by z.zoneId")
+    List<ZoneResponse> findAllResponses();
 }
\ No newline at end of file
@@ -1,31 +1,140 @@
 package train.local.fogpass.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import train.local.fogpass.entity.User;
 import train.local.fogpass.repository.UserRepository;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads users for authentication, behind a size- and TTL-bounded LRU cache of detached
+ * {@link UserPrincipal}s. User changes evict their entry after commit; the TTL bounds staleness
+ * for changes made by other instances. An eviction bumps the key's generation, so a load that
+ * raced with it (and may hold the pre-commit row) is returned but not cached.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private record Entry(UserPrincipal principal, long loadedAt) {
+    }
+
+    private static final int GENERATION_STRIPES = 64; // power of two
+
     private final UserRepository userRepository;
+    private final boolean cacheEnabled;
+    private final long ttlMillis;
+
+    // Access-ordered LinkedHashMap as an LRU; guarded by its own monitor
+    private final LinkedHashMap<String, Entry> cache;
+    // Eviction count per username hash stripe; guarded by the cache monitor
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${app.security.principal-cache.enabled:true}") boolean cacheEnabled,
+                                    @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                                    @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
         this.userRepository = userRepository;
+        this.cacheEnabled = cacheEnabled;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
     }
 
+    // Not @Transactional: a cache hit needs no connection, and the repository call runs in its own
+    // read-only transaction with an entity graph that fetches everything fromUser reads
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long generation = 0;
+        if (cacheEnabled) {
+            long now = System.currentTimeMillis();
+            synchronized (cache) {
+                Entry entry = cache.get(username);
+                if (entry != null && now - entry.loadedAt() < ttlMillis) {
+                    hits.increment();
+                    return entry.principal();
+                }
+                generation = generations[stripe(username)];
+            }
+            misses.increment();
+        }
+
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         // Use username as fullName fallback (adjust if full name available in entity)
-        return UserPrincipal.fromUser(user);
+        UserPrincipal principal = UserPrincipal.fromUser(user);
+        if (cacheEnabled) {
+            synchronized (cache) {
+                if (generations[stripe(username)] == generation) {
+                    cache.put(username, new Entry(principal, System.currentTimeMillis()));
+                }
+            }
+        }
+        return principal;
+    }
+
+    /** Drop the cached principal once the surrounding transaction commits (immediately if there is none). */
+    public void evict(String username) {
+        if (username == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        } else {
+            remove(username);
+        }
+    }
+
+    private void remove(String username) {
+        synchronized (cache) {
+            generations[stripe(username)]++;
+            if (cache.remove(username) != null) invalidations.increment();
+        }
+    }
+
+    private static int stripe(String username) {
+        return username.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cacheEnabled);
+        stats.put("size", size);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
     }
 }
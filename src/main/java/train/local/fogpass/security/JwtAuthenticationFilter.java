@@ -1,9 +1,11 @@
 package train.local.fogpass.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,11 +21,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final boolean statelessPrincipal;
 
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
-                                   CustomUserDetailsService userDetailsService) {
+                                   CustomUserDetailsService userDetailsService,
+                                   TokenVersionCache tokenVersionCache,
+                                   @Value("${app.security.stateless-principal:true}") boolean statelessPrincipal) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -33,35 +41,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String header = request.getHeader(HttpHeaders.AUTHORIZATION);
 
         String token = null;
-        String username = null;
+        Claims claims = null;
 
         // ✅ Extract JWT from Bearer header
         if (header != null && header.startsWith("Bearer ")) {
             token = header.substring(7);
-            if (tokenProvider.validateToken(token)) {
-                username = tokenProvider.getUsernameFromToken(token);
-            }
+            // One signature check per request; claims are null when the token is invalid or expired
+            claims = tokenProvider.parseClaims(token);
         }
 
         // ✅ Authenticate user if token is valid and no existing authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolvePrincipal(claims);
 
-            // ⚠️ Ensure roles always start with "ROLE_"
-            // (if not already done inside CustomUserDetailsService / UserPrincipal)
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities() // should already include ROLE_ prefix
-                    );
+            // A revoked token leaves the request unauthenticated, so protected endpoints answer 401
+            if (userDetails != null) {
+                // ⚠️ Ensure roles always start with "ROLE_"
+                // (if not already done inside CustomUserDetailsService / UserPrincipal)
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities() // should already include ROLE_ prefix
+                        );
 
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            // Set authentication in context
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Set authentication in context
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // Principal straight from the claims, unless disabled or the token predates the uid/ver claims
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            UserPrincipal principal = tokenProvider.toPrincipal(claims);
+            if (principal != null) {
+                return tokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion()) ? principal : null;
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
 }
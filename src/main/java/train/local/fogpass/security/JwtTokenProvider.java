@@ -12,19 +12,21 @@ import java.util.*;
 @Component
 public class JwtTokenProvider {
 
-    private final String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final long jwtExpirationInMs;
+    // Built once: deriving the HMAC key and the parser per call showed up on every authenticated request
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
     public JwtTokenProvider(
             @Value("${app.jwt-secret}") String jwtSecret,
             @Value("${app.jwt-expiration-milliseconds}") long jwtExpirationInMs
     ) {
-        this.jwtSecret = jwtSecret;
         this.jwtExpirationInMs = jwtExpirationInMs;
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build(); // immutable, thread-safe
     }
 
     public String generateToken(UserPrincipal userPrincipal) {
@@ -36,32 +38,46 @@ public class JwtTokenProvider {
 
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_TOKEN_VERSION, userPrincipal.getTokenVersion())
                 .claim("roles", roles)
                 .claim("scopes", scopes)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verify the token's signature and expiry in one pass and return its claims,
+     * or null if the token is invalid.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Principal carried by the token's claims, or null for tokens issued before the uid/ver claims
+     * existed (those fall back to a user lookup).
+     */
+    @SuppressWarnings("unchecked")
+    public UserPrincipal toPrincipal(Claims claims) {
+        Number uid = claims.get(CLAIM_USER_ID, Number.class);
+        Number version = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        if (uid == null || version == null) return null;
+        return UserPrincipal.fromTokenClaims(uid.longValue(), claims.getSubject(), version.intValue(),
+                claims.get("scopes", List.class));
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException ex) {
-            return false;
-        }
+        return parseClaims(authToken) != null;
     }
 }
\ No newline at end of file
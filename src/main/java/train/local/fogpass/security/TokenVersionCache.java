@@ -0,0 +1,129 @@
+package train.local.fogpass.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Current token version per user id, so a stateless JWT can be checked for revocation without a
+ * query per request. An entry is one int loaded by primary key and kept for {@code ttl-seconds}; local
+ * changes evict it immediately, and the TTL bounds how long another instance can accept a revoked token.
+ * An invalidation bumps the user's generation before removing the entry, and a load is only stored
+ * (inside {@code compute}) if that generation has not moved, so a load that read the row before the
+ * change committed can never overwrite the invalidation.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final int DELETED = -1; // no user row: no version is current
+    private static final int GENERATION_STRIPES = 64; // power of two
+
+    private record Entry(int version, long loadedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<Long, Entry> versions = new ConcurrentHashMap<>();
+    // Invalidation count per user id stripe
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenVersionCache(JdbcTemplate jdbcTemplate,
+                             @Value("${app.security.token-version-ttl-seconds:60}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /** True if {@code tokenVersion} is still the user's current version. */
+    public boolean isCurrent(long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry != null && now - entry.loadedAt() < ttlMillis) {
+            hits.increment();
+        } else {
+            entry = loadAndStore(userId, now);
+        }
+        if (entry.version() != tokenVersion) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // If an invalidation lands during the load, the result may predate it: load once more, since the
+    // invalidation runs after commit and a second read sees the new version
+    private Entry loadAndStore(long userId, long now) {
+        int stripe = stripe(userId);
+        Entry loaded = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long generation = generations.get(stripe);
+            Entry fresh = new Entry(load(userId), now);
+            loads.increment();
+            loaded = fresh;
+            boolean[] stored = {false};
+            versions.compute(userId, (id, current) -> {
+                if (generations.get(stripe) != generation) return current;
+                stored[0] = true;
+                return fresh;
+            });
+            if (stored[0]) break;
+        }
+        return loaded;
+    }
+
+    private int load(long userId) {
+        try {
+            Integer version = jdbcTemplate.queryForObject(
+                    "SELECT token_version FROM users WHERE id = ?", Integer.class, userId);
+            return version != null ? version : 0;
+        } catch (EmptyResultDataAccessException e) {
+            return DELETED;
+        }
+    }
+
+    /** Forget the user's version once the surrounding transaction commits (immediately if there is none). */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(userId);
+                }
+            });
+        } else {
+            remove(userId);
+        }
+    }
+
+    // Bump first: a load finishing between the two steps then sees the new generation and stores nothing
+    private void remove(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        versions.remove(userId);
+    }
+
+    private static int stripe(long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", versions.size());
+        stats.put("hits", hits.sum());
+        stats.put("loads", loads.sum());
+        stats.put("rejectedTokens", rejected.sum());
+        return stats;
+    }
+}
@@ -36,13 +36,16 @@ public class UserPrincipal implements UserDetails {
     private final String password;
     private final String fullName;
     private final Set<ScopeView> accessScopes; // detached scopes
+    private final int tokenVersion;
 
-    private UserPrincipal(Long id, String username, String password, String fullName, Set<ScopeView> accessScopes) {
+    private UserPrincipal(Long id, String username, String password, String fullName, Set<ScopeView> accessScopes,
+                          int tokenVersion) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.fullName = fullName;
         this.accessScopes = accessScopes != null ? Collections.unmodifiableSet(accessScopes) : Set.of();
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserPrincipal fromUser(User user) {
@@ -60,13 +63,39 @@ public class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getPassword(),
                 user.getUsername(), // change to user.getFullName() if available
-                scopes
+                scopes,
+                user.getTokenVersion()
         );
     }
 
+    /**
+     * Rebuild a principal from verified JWT claims (the inverse of {@link #getScopesAsMaps()}), so an
+     * authenticated request needs no user lookup. There is no password: such a principal never re-authenticates.
+     */
+    public static UserPrincipal fromTokenClaims(Long id, String username, int tokenVersion, List<Map<String, Object>> scopes) {
+        Set<ScopeView> views = new HashSet<>();
+        if (scopes != null) {
+            for (Map<String, Object> m : scopes) {
+                views.add(new ScopeView(
+                        toLong(m.get("zoneId")),
+                        toLong(m.get("divisionId")),
+                        toLong(m.get("sectionId")),
+                        (String) m.get("roleName")
+                ));
+            }
+        }
+        return new UserPrincipal(id, username, null, username, views, tokenVersion);
+    }
+
+    // JSON numbers come back as Integer or Long depending on size
+    private static Long toLong(Object value) {
+        return value instanceof Number n ? n.longValue() : null;
+    }
+
     public Long getId() { return id; }
     public String getFullName() { return fullName; }
     public Set<ScopeView> getAccessScopes() { return accessScopes; }
+    public int getTokenVersion() { return tokenVersion; }
 
     public List<String> getRoleNames() {
         return accessScopes.stream()
@@ -1,3 +1,23 @@
 package train.local.fogpass.service;
 
-public interface AlertService {}
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.model.GpsFix;
+
+import java.util.List;
+import java.util.Map;
+
+public interface AlertService {
+    /**
+     * Evaluate a fix against the landmarks just ahead of the train and return any newly triggered alerts.
+     * Fixes of one journey must be passed in order, from one thread at a time.
+     */
+    List<AlertEvent> evaluate(GpsFix fix);
+
+    /** Reload the landmarkType → audio file mapping from landmark_alert_config. */
+    void refreshAlertConfig();
+
+    /** Drop in-memory state for a journey that has ended. */
+    void endJourney(Long journeyId);
+
+    Map<String, Object> getStats();
+}
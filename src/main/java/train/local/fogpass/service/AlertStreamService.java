@@ -0,0 +1,26 @@
+package train.local.fogpass.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import train.local.fogpass.model.AlertEvent;
+
+import java.util.List;
+import java.util.Map;
+
+public interface AlertStreamService {
+    /**
+     * Open an SSE stream of a journey's alerts. If {@code lastEventId} is given, alerts after it that
+     * are still in the journey's replay buffer are sent first.
+     */
+    SseEmitter subscribe(Long journeyId, Long lastEventId);
+
+    /**
+     * Push freshly computed alerts to the journey's subscribers. Never blocks on a client;
+     * {@code fixReceivedNanos} is the receive time of the fix that produced them.
+     */
+    void publish(long journeyId, List<AlertEvent> alerts, long fixReceivedNanos);
+
+    /** Complete all streams of a journey that has ended. */
+    void closeJourney(Long journeyId);
+
+    Map<String, Object> getStats();
+}
@@ -1,3 +1,42 @@
 package train.local.fogpass.service;
 
-public interface GpsProcessingService {}
+import train.local.fogpass.dto.response.GpsBatchResponse;
+import train.local.fogpass.model.GpsFix;
+
+import java.util.List;
+
+import java.util.Map;
+
+public interface GpsProcessingService {
+    /**
+     * Enqueue a fix for asynchronous processing. Never touches the database on the caller's thread.
+     * Throws {@link train.local.fogpass.exception.TooManyRequestsException} when the journey's queue
+     * is full and the overflow policy is REJECT.
+     */
+    void submit(GpsFix fix);
+
+    /**
+     * Enqueue fixes of one journey as a unit: either all are queued or, under REJECT with too little room,
+     * none are. Under DROP_OLDEST only fixes queued earlier are dropped to make room. At most the queue
+     * capacity may be submitted at once.
+     */
+    void submitAll(long journeyId, List<GpsFix> fixes);
+
+    /**
+     * Process a store-and-forward backlog in order, on the caller's thread, through the same alert and
+     * log pipeline as live fixes. Fixes whose sequence number is not above the journey's last accepted
+     * one are skipped, so retrying an upload is harmless.
+     */
+    GpsBatchResponse submitBatch(long journeyId, long[] sequences, List<GpsFix> fixes);
+
+    /**
+     * Process the journey's pending fixes on the caller's thread and refuse any later ones with a
+     * {@link train.local.fogpass.exception.BadRequestException}. Call before scoring an ending journey.
+     */
+    void closeJourney(long journeyId);
+
+    /** Accept fixes again after the transaction ending the journey rolled back. */
+    void reopenJourney(long journeyId);
+
+    Map<String, Object> getStats();
+}
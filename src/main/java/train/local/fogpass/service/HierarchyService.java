@@ -0,0 +1,15 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.HierarchySnapshot;
+
+import java.util.Map;
+
+public interface HierarchyService {
+    /** The current Zone → Division → Section tree, built on first use and after every committed change. */
+    HierarchySnapshot getSnapshot();
+
+    /** Zones, divisions or sections were created, updated or deleted; rebuild once the transaction commits. */
+    void onHierarchyChanged();
+
+    Map<String, Object> getStats();
+}
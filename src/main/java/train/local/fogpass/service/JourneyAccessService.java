@@ -0,0 +1,19 @@
+package train.local.fogpass.service;
+
+import java.util.Map;
+
+public interface JourneyAccessService {
+    /**
+     * The journey exists, is IN_PROGRESS and belongs to the calling user (SUPER_ADMIN: any journey).
+     * Throws ResourceNotFoundException, BadRequestException or AccessDeniedException otherwise.
+     */
+    void requireActive(Long journeyId);
+
+    /** The journey exists and belongs to the calling user (SUPER_ADMIN: any journey), whatever its status. */
+    void requireOwned(Long journeyId);
+
+    /** Forget the cached owner and status once the surrounding transaction commits. */
+    void evict(Long journeyId);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,17 @@
+package train.local.fogpass.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface JourneyLogExportService {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * Stream matching journey_logs rows (ordered by log_timestamp) to {@code out} in the given format.
+     * Uses a forward-only streaming cursor, so memory use does not depend on the number of rows.
+     * Returns the number of rows written.
+     */
+    long export(Long journeyId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException;
+}
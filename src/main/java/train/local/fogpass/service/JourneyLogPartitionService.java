@@ -0,0 +1,13 @@
+package train.local.fogpass.service;
+
+import java.util.Map;
+
+public interface JourneyLogPartitionService {
+    /**
+     * Make sure journey_logs is range-partitioned by month on log_timestamp, create partitions for the
+     * coming months and drop the ones past retention. Idempotent; a no-op when partitioning is disabled.
+     */
+    void maintain();
+
+    Map<String, Object> getStats();
+}
@@ -1,3 +1,10 @@
 package train.local.fogpass.service;
 
-public interface JourneyService {}
+import train.local.fogpass.dto.response.PerformanceSummaryResponse;
+
+public interface JourneyService {
+    /** Mark the journey COMPLETED, persist its performance summary and release its live state. */
+    PerformanceSummaryResponse endJourney(Long journeyId);
+
+    PerformanceSummaryResponse getPerformanceSummary(Long journeyId);
+}
@@ -0,0 +1,14 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.dto.response.LandmarkImportResponse;
+
+import java.io.InputStream;
+
+public interface LandmarkImportService {
+    /**
+     * Stream a landmark CSV (header row required) into the landmarks table. Invalid rows are skipped
+     * and reported; valid rows are upserted in JDBC batches keyed by (routeId, sequenceOrder), so
+     * re-importing a file updates the existing landmarks. Affected route caches are refreshed once.
+     */
+    LandmarkImportResponse importCsv(InputStream csv);
+}
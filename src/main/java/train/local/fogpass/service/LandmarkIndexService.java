@@ -0,0 +1,28 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.RouteLandmarks;
+
+import java.util.Map;
+
+public interface LandmarkIndexService {
+    /** Cached index for a route, loaded from the database on first use. */
+    RouteLandmarks getRouteIndex(Long routeId);
+
+    /**
+     * Indices (into the route's {@link RouteLandmarks}) of landmarks whose prewarning circle contains the
+     * point, written to {@code out}. Returns the number of matches; if it exceeds {@code out.length} the
+     * buffer holds only part of them.
+     */
+    int findWithinPrewarning(Long routeId, double latitude, double longitude, int[] out);
+
+    /** Rebuild one route's index from the database and swap it in. */
+    void refreshRoute(Long routeId);
+
+    /**
+     * Schedule a rebuild of the route once the current transaction (if any) commits. Repeated calls in one
+     * transaction rebuild each route once.
+     */
+    void onLandmarksChanged(Long routeId);
+
+    Map<String, Object> getStats();
+}
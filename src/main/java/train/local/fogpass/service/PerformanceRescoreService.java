@@ -0,0 +1,23 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.dto.response.RescoreJobResponse;
+
+import java.util.Map;
+
+public interface PerformanceRescoreService {
+    /**
+     * Start rescoring the persisted summaries of completed journeys with ids in [fromId, toId]
+     * (defaults: all completed journeys). Runs in the background; only one job runs at a time.
+     */
+    RescoreJobResponse start(Long fromId, Long toId);
+
+    /** Continue a cancelled, failed or interrupted job, skipping the id ranges it already checkpointed. */
+    RescoreJobResponse resume(Long jobId);
+
+    /** Stop handing out new ranges; ranges in progress finish and are checkpointed. */
+    RescoreJobResponse cancel(Long jobId);
+
+    RescoreJobResponse getJob(Long jobId);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,24 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.dto.response.PerformanceSummaryResponse;
+import train.local.fogpass.entity.Journey;
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.model.GpsFix;
+
+import java.util.Map;
+
+public interface PerformanceSummaryService {
+    /** Fold a processed fix and the alerts it raised into the journey's running aggregates. Called in fix order. */
+    void onFix(GpsFix fix, int alertCount);
+
+    /** Live summary of a running journey, or the persisted one of an ended journey. */
+    PerformanceSummaryResponse getSummary(Long journeyId);
+
+    /** Score the journey from its aggregates and save its summary; must run inside the transaction ending it. */
+    PerformanceSummary complete(Journey journey);
+
+    /** Drop the in-memory aggregates of a journey that has ended. */
+    void endJourney(Long journeyId);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,18 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.RoutePackage;
+
+import java.util.Map;
+
+public interface RoutePackageService {
+    /** The route's current package, building it on first request after a change. */
+    RoutePackage getPackage(Long routeId);
+
+    /** Discard a route's cached package once the current transaction commits. */
+    void onRouteChanged(Long routeId);
+
+    /** Discard every cached package once the current transaction commits (e.g. after alert audio changes). */
+    void invalidateAll();
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,13 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.ScopeIndex;
+import train.local.fogpass.security.UserPrincipal;
+
+import java.util.Map;
+
+public interface ScopeIndexService {
+    /** The principal's scope index, built once per (user, token version, hierarchy snapshot) and then cached. */
+    ScopeIndex forPrincipal(UserPrincipal principal);
+
+    Map<String, Object> getStats();
+}
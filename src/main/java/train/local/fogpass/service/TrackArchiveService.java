@@ -0,0 +1,24 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.TrackPointSink;
+
+import java.util.Map;
+
+public interface TrackArchiveService {
+    /** Archive the tracks of completed journeys that are due; returns how many journeys were archived. */
+    int archiveCompletedJourneys();
+
+    /**
+     * Encode one journey's track_points into its track archive, merging them into an existing archive in
+     * time order, and delete the rows. Returns false if it had none.
+     */
+    boolean archiveJourney(long journeyId);
+
+    /**
+     * Replay a journey's archived points within [from, to) into {@code sink}. Returns the last archived
+     * timestamp (points after it are still in track_points), or -1 if the journey has no archive.
+     */
+    long replayArchived(long journeyId, Long from, Long to, TrackPointSink sink);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,17 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.TrackPointSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TrackService {
+    /**
+     * Stream a journey's track points in time order as JSON, optionally limited to [from, to) epoch millis.
+     * Returns the number of points written.
+     */
+    long writeTrackJson(long journeyId, Long from, Long to, OutputStream out) throws IOException;
+
+    /** Replay a journey's track points in time order, archived or not, optionally limited to [from, to). */
+    void forEachPoint(long journeyId, Long from, Long to, TrackPointSink sink);
+}
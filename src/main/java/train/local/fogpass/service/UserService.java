@@ -2,6 +2,7 @@ package train.local.fogpass.service;
 
 import train.local.fogpass.dto.request.UserCreateRequest;
 import train.local.fogpass.dto.request.UserUpdateRequest;
+import train.local.fogpass.dto.response.UserPageResponse;
 import train.local.fogpass.dto.response.UserResponse;
 
 import java.util.List;
@@ -10,6 +11,8 @@ public interface UserService {
     UserResponse createUser(UserCreateRequest createRequest);
     UserResponse updateUser(Long id, UserUpdateRequest updateRequest);
     List<UserResponse> getAllUsers();
+    UserPageResponse listUsers(Long afterId, Integer limit, Boolean active, String designation,
+                               Long zoneId, Long divisionId, Long sectionId);
     UserResponse getUserById(Long id);
     void deleteUser(Long id);
 }
@@ -0,0 +1,23 @@
+package train.local.fogpass.service;
+
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.model.JourneyLogRecord;
+
+import java.util.Map;
+
+public interface WriteBehindService {
+    /** Buffer a journey_logs row; returns immediately and never touches the database on the caller's thread. */
+    void enqueueLog(JourneyLogRecord record);
+
+    /** Buffer a triggered_alert row; same guarantees as {@link #enqueueLog}. */
+    void enqueueAlert(AlertEvent alert);
+
+    /** Buffer a track_points row for a processed GPS fix; same guarantees as {@link #enqueueLog}. */
+    void enqueueTrackPoint(GpsFix fix);
+
+    /** Write everything currently buffered (to MySQL, or to the spool file if MySQL is unavailable). */
+    void flush();
+
+    Map<String, Object> getStats();
+}
@@ -1,12 +1,13 @@
 package train.local.fogpass.service;
 
+import train.local.fogpass.dto.response.ZoneResponse;
 import train.local.fogpass.entity.Zone;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface ZoneService {
-    List<Zone> getAllZones();
+    List<ZoneResponse> getAllZones();
     Optional<Zone> getZoneById(Long id);
     Zone createZone(Zone zone);
     Optional<Zone> updateZone(Long id, Zone zone);
@@ -1,3 +1,242 @@
 package train.local.fogpass.service.impl;
 
-public class AlertServiceImpl {}
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.entity.LandmarkAlertConfig;
+import train.local.fogpass.entity.enums.AlertType;
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.model.LandmarkCursor;
+import train.local.fogpass.model.RouteLandmarks;
+import train.local.fogpass.repository.JourneyRepository;
+import train.local.fogpass.repository.LandmarkAlertConfigRepository;
+import train.local.fogpass.service.AlertService;
+import train.local.fogpass.service.LandmarkIndexService;
+import train.local.fogpass.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Alert engine. Holds one {@link LandmarkCursor} per active journey so each fix is checked only
+ * against the few landmarks just ahead of the train instead of the whole route.
+ *
+ * Per journey, every landmark on the route path moves through NONE → PREWARNING → AT_LANDMARK →
+ * PASSED and an event is emitted only when its level goes up, so each alert fires exactly once per
+ * landmark. Landmarks the cursor jumps over during re-acquisition (e.g. inside a tunnel) are marked
+ * passed silently rather than replaying stale alerts. All state is in memory; nothing here queries
+ * the database per fix. A journey's route is looked up when its state is created; one without a route
+ * yet is looked up again at most every {@code route-recheck-ms} until it has one.
+ */
+@Service
+public class AlertServiceImpl implements AlertService {
+
+    private static final byte NONE = 0;
+    private static final byte PREWARNED = 1;
+    private static final byte AT_LANDMARK = 2;
+    private static final byte PASSED = 3;
+
+    // Alert state of one journey; only touched by the worker currently processing that journey
+    private static final class JourneyAlertState {
+        private final LandmarkCursor cursor;
+        private RouteLandmarks route;
+        private byte[] levels = new byte[0]; // indexed by path position
+
+        private JourneyAlertState(LandmarkCursor cursor) {
+            this.cursor = cursor;
+        }
+    }
+
+    private final JourneyRepository journeyRepository;
+    private final LandmarkIndexService landmarkIndexService;
+    private final LandmarkAlertConfigRepository alertConfigRepository;
+    private final LandmarkCursor.Settings cursorSettings;
+    private final long routeRecheckMs;
+
+    private final ConcurrentHashMap<Long, JourneyAlertState> journeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> routelessCheckedAt = new ConcurrentHashMap<>(); // epoch millis
+    private volatile Map<String, String> audioByLandmarkType;
+
+    private final LongAdder fixesEvaluated = new LongAdder();
+    private final LongAdder landmarksPassed = new LongAdder();
+    private final LongAdder alertsEmitted = new LongAdder();
+    private final LatencyHistogram evaluationLatency = new LatencyHistogram();
+
+    public AlertServiceImpl(JourneyRepository journeyRepository,
+                            LandmarkIndexService landmarkIndexService,
+                            LandmarkAlertConfigRepository alertConfigRepository,
+                            @Value("${app.alerts.lookahead:3}") int lookahead,
+                            @Value("${app.alerts.gps-gap-ms:30000}") long gapMillis,
+                            @Value("${app.alerts.reacquire-distance-m:3000}") double reacquireDistance,
+                            @Value("${app.alerts.jitter-margin-m:30}") double jitterMargin,
+                            @Value("${app.alerts.at-landmark-radius-m:50}") double atLandmarkRadius,
+                            @Value("${app.alerts.route-recheck-ms:30000}") long routeRecheckMs) {
+        this.journeyRepository = journeyRepository;
+        this.landmarkIndexService = landmarkIndexService;
+        this.alertConfigRepository = alertConfigRepository;
+        this.cursorSettings = new LandmarkCursor.Settings(lookahead, gapMillis, reacquireDistance, jitterMargin, atLandmarkRadius);
+        this.routeRecheckMs = routeRecheckMs;
+    }
+
+    @Override
+    public List<AlertEvent> evaluate(GpsFix fix) {
+        long start = System.nanoTime();
+        JourneyAlertState state = journeys.get(fix.getJourneyId());
+        if (state == null) {
+            state = createState(fix.getJourneyId());
+            if (state == null) return List.of();
+        }
+        LandmarkCursor cursor = state.cursor;
+
+        RouteLandmarks route = landmarkIndexService.getRouteIndex(cursor.getRouteId());
+        if (state.route != route) {
+            state.levels = carryOver(state.route, state.levels, route);
+            state.route = route;
+        }
+
+        int before = cursor.getPosition();
+        long reacquisitionsBefore = cursor.getReacquisitions();
+        int passed = cursor.advance(route, fix.getLatitude(), fix.getLongitude(), fix.getTimestamp(), cursorSettings);
+        fixesEvaluated.increment();
+
+        List<AlertEvent> events = null;
+        if (cursor.getReacquisitions() != reacquisitionsBefore) {
+            // Jumped ahead: whatever lies behind the new position is history, not an alert
+            for (int p = 0; p < cursor.getPosition(); p++) {
+                if (state.levels[p] < PASSED) state.levels[p] = PASSED;
+            }
+        } else {
+            for (int p = before; p < before + passed; p++) {
+                if (state.levels[p] < PASSED) {
+                    state.levels[p] = PASSED;
+                    events = add(events, event(fix, route, route.pathAt(p), AlertType.PASSED));
+                }
+            }
+            landmarksPassed.add(passed);
+        }
+
+        // Threshold checks only; the exact distance is computed just for emitted events
+        int upcoming = cursor.upcomingCount(cursorSettings);
+        double latRad = Math.toRadians(fix.getLatitude());
+        double lonRad = Math.toRadians(fix.getLongitude());
+        double cosLat = Math.cos(latRad);
+        for (int k = 0; k < upcoming; k++) {
+            int p = cursor.getPosition() + k;
+            if (state.levels[p] >= AT_LANDMARK) continue;
+            int i = route.pathAt(p);
+            if (route.isWithin(i, latRad, lonRad, cosLat, cursorSettings.getAtLandmarkRadius())) {
+                state.levels[p] = AT_LANDMARK;
+                events = add(events, event(fix, route, i, AlertType.AT_LANDMARK));
+            } else if (state.levels[p] < PREWARNED && route.isWithin(i, latRad, lonRad, cosLat, route.getPrewarningDistance(i))) {
+                state.levels[p] = PREWARNED;
+                events = add(events, event(fix, route, i, AlertType.PREWARNING));
+            }
+        }
+
+        evaluationLatency.record(System.nanoTime() - start);
+        if (events == null) return List.of();
+        alertsEmitted.add(events.size());
+        return events;
+    }
+
+    // Route lookup outside the map so no bin lock is held across the query; null while the journey has no route
+    private JourneyAlertState createState(long journeyId) {
+        long now = System.currentTimeMillis();
+        Long checkedAt = routelessCheckedAt.get(journeyId);
+        if (checkedAt != null && now - checkedAt < routeRecheckMs) {
+            return null;
+        }
+        Long routeId = journeyRepository.findRouteIdById(journeyId).orElse(null);
+        if (routeId == null) {
+            routelessCheckedAt.put(journeyId, now);
+            return null;
+        }
+        routelessCheckedAt.remove(journeyId);
+        JourneyAlertState state = new JourneyAlertState(new LandmarkCursor(journeyId, routeId));
+        JourneyAlertState existing = journeys.putIfAbsent(journeyId, state);
+        return existing != null ? existing : state;
+    }
+
+    private static List<AlertEvent> add(List<AlertEvent> events, AlertEvent e) {
+        if (events == null) events = new ArrayList<>(2);
+        events.add(e);
+        return events;
+    }
+
+    private AlertEvent event(GpsFix fix, RouteLandmarks route, int i, AlertType type) {
+        return new AlertEvent(
+                fix.getJourneyId(),
+                route.getId(i),
+                route.getSequenceOrder(i),
+                route.getName(i),
+                route.getLandmarkType(i),
+                type,
+                (int) Math.round(route.distanceMeters(i, fix.getLatitude(), fix.getLongitude())),
+                route.getLandmarkType(i) != null ? audioFiles().get(route.getLandmarkType(i)) : null,
+                fix.getTimestamp()
+        );
+    }
+
+    // Re-map alert levels onto a rebuilt route snapshot by landmark id, so a rebuild never re-fires alerts
+    private static byte[] carryOver(RouteLandmarks oldRoute, byte[] oldLevels, RouteLandmarks newRoute) {
+        byte[] levels = new byte[newRoute.pathLength()];
+        if (oldRoute == null) return levels;
+        Map<Long, Byte> byId = new HashMap<>();
+        for (int p = 0; p < oldRoute.pathLength(); p++) {
+            if (oldLevels[p] != NONE) byId.put(oldRoute.getId(oldRoute.pathAt(p)), oldLevels[p]);
+        }
+        for (int p = 0; p < newRoute.pathLength(); p++) {
+            Byte level = byId.get(newRoute.getId(newRoute.pathAt(p)));
+            if (level != null) levels[p] = level;
+        }
+        return levels;
+    }
+
+    // landmarkType -> audio file, loaded once and kept until refreshAlertConfig()
+    private Map<String, String> audioFiles() {
+        Map<String, String> audio = audioByLandmarkType;
+        if (audio == null) {
+            refreshAlertConfig();
+            audio = audioByLandmarkType;
+        }
+        return audio;
+    }
+
+    @Override
+    public void refreshAlertConfig() {
+        Map<String, String> audio = new HashMap<>();
+        for (LandmarkAlertConfig config : alertConfigRepository.findAll()) {
+            if (config.getAudioFileName() != null) audio.put(config.getLandmarkType(), config.getAudioFileName());
+        }
+        audioByLandmarkType = Map.copyOf(audio);
+    }
+
+    @Override
+    public void endJourney(Long journeyId) {
+        journeys.remove(journeyId);
+        routelessCheckedAt.remove(journeyId);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long reacquisitions = 0;
+        for (JourneyAlertState s : journeys.values()) {
+            reacquisitions += s.cursor.getReacquisitions();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeJourneys", journeys.size());
+        stats.put("fixesEvaluated", fixesEvaluated.sum());
+        stats.put("landmarksPassed", landmarksPassed.sum());
+        stats.put("alertsEmitted", alertsEmitted.sum());
+        stats.put("cursorReacquisitions", reacquisitions);
+        stats.put("evaluationAvgMicros", evaluationLatency.getAvgMicros());
+        stats.put("evaluationP99Micros", evaluationLatency.percentileMicros(99));
+        stats.put("evaluationMaxMicros", evaluationLatency.getMaxMicros());
+        return stats;
+    }
+}
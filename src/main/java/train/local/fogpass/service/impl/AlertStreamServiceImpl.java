@@ -0,0 +1,289 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.service.AlertStreamService;
+import train.local.fogpass.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE push of alerts to cab devices, one channel per journey.
+ *
+ * Every alert gets a per-journey increasing event id and is kept in a small replay buffer, so a
+ * device reconnecting with {@code Last-Event-ID} receives what it missed. Each subscriber has its own
+ * bounded queue drained by a virtual thread; a slow client only loses its own oldest alerts and never
+ * holds up the GPS workers that publish. Heartbeat comments keep idle connections (and proxies) alive.
+ */
+@Service
+public class AlertStreamServiceImpl implements AlertStreamService {
+
+    private static final String ALERT_EVENT_NAME = "alert";
+    // Channels with no subscribers are forgotten after this long without activity
+    private static final long CHANNEL_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final class StreamedAlert {
+        private final long id;
+        private final AlertEvent event;
+        private final long fixReceivedNanos; // 0 for replayed alerts, which are not latency samples
+
+        private StreamedAlert(long id, AlertEvent event, long fixReceivedNanos) {
+            this.id = id;
+            this.event = event;
+            this.fixReceivedNanos = fixReceivedNanos;
+        }
+
+        private StreamedAlert asReplay() {
+            return new StreamedAlert(id, event, 0);
+        }
+    }
+
+    // Alerts history and subscribers of one journey; history is only touched inside channels.compute()
+    private static final class Channel {
+        private long lastId;
+        private final ArrayDeque<StreamedAlert> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private volatile long lastActivity = System.currentTimeMillis();
+    }
+
+    // One connected device; pending/flags guarded by its own monitor, at most one drain running at a time
+    private final class Subscriber {
+        private final long journeyId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<StreamedAlert> pending = new ArrayDeque<>();
+        private boolean heartbeatDue;
+        private boolean sending;
+        private boolean closed;
+
+        private Subscriber(long journeyId, SseEmitter emitter) {
+            this.journeyId = journeyId;
+            this.emitter = emitter;
+        }
+
+        // Returns true if the caller must schedule a drain
+        private synchronized boolean offer(StreamedAlert alert) {
+            if (closed) return false;
+            if (pending.size() >= clientBuffer) {
+                pending.pollFirst();
+                dropped.increment();
+            }
+            pending.addLast(alert);
+            return claimSender();
+        }
+
+        private synchronized boolean requestHeartbeat() {
+            if (closed) return false;
+            heartbeatDue = true;
+            return claimSender();
+        }
+
+        private boolean claimSender() {
+            if (sending) return false;
+            sending = true;
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                StreamedAlert next;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                    if (next == null && (!heartbeatDue || closed)) {
+                        sending = false;
+                        return;
+                    }
+                    if (next == null) heartbeatDue = false;
+                }
+                try {
+                    if (next != null) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(next.id))
+                                .name(ALERT_EVENT_NAME)
+                                .data(next.event, MediaType.APPLICATION_JSON));
+                        delivered.increment();
+                        if (next.fixReceivedNanos != 0) {
+                            fixToAlertLatency.record(System.nanoTime() - next.fixReceivedNanos);
+                        }
+                    } else {
+                        emitter.send(SseEmitter.event().comment("hb"));
+                        heartbeats.increment();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the async request already completed
+                    disconnects.increment();
+                    unsubscribe(this);
+                    return;
+                }
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+        }
+    }
+
+    private final int clientBuffer;
+    private final int replayBuffer;
+    private final long timeoutMs;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder resumeGaps = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private final LatencyHistogram fixToAlertLatency = new LatencyHistogram();
+
+    public AlertStreamServiceImpl(@Value("${app.alerts.stream.client-buffer:256}") int clientBuffer,
+                                  @Value("${app.alerts.stream.replay-buffer:200}") int replayBuffer,
+                                  @Value("${app.alerts.stream.timeout-ms:1800000}") long timeoutMs,
+                                  @Value("${app.alerts.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.clientBuffer = clientBuffer;
+        this.replayBuffer = replayBuffer;
+        this.timeoutMs = timeoutMs;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "alert-stream-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeat.scheduleAtFixedRate(this::heartbeatAndSweep, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long journeyId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(journeyId, emitter);
+        emitter.onCompletion(() -> unsubscribe(sub));
+        emitter.onTimeout(() -> unsubscribe(sub));
+        emitter.onError(e -> unsubscribe(sub));
+
+        channels.compute(journeyId, (id, channel) -> {
+            if (channel == null) channel = new Channel();
+            if (lastEventId != null) {
+                StreamedAlert oldest = channel.history.peekFirst();
+                if (oldest != null && oldest.id > lastEventId + 1) {
+                    resumeGaps.increment(); // some missed alerts already fell out of the replay buffer
+                }
+                for (StreamedAlert alert : channel.history) {
+                    if (alert.id > lastEventId) {
+                        sub.offer(alert.asReplay());
+                        replayed.increment();
+                    }
+                }
+            }
+            // The first write commits the response headers. Claiming the sender before the subscriber
+            // becomes visible means the drain scheduled below is the only one
+            sub.requestHeartbeat();
+            // Registered inside compute(), so no alert can slip in between the replay and live delivery
+            channel.subscribers.add(sub);
+            channel.lastActivity = System.currentTimeMillis();
+            return channel;
+        });
+        senders.execute(sub::drain);
+        return emitter;
+    }
+
+    @Override
+    public void publish(long journeyId, List<AlertEvent> alerts, long fixReceivedNanos) {
+        if (alerts.isEmpty()) return;
+        channels.compute(journeyId, (id, channel) -> {
+            if (channel == null) channel = new Channel();
+            for (AlertEvent event : alerts) {
+                StreamedAlert alert = new StreamedAlert(++channel.lastId, event, fixReceivedNanos);
+                if (channel.history.size() >= replayBuffer) channel.history.pollFirst();
+                channel.history.addLast(alert);
+                for (Subscriber sub : channel.subscribers) {
+                    if (sub.offer(alert)) senders.execute(sub::drain);
+                }
+            }
+            channel.lastActivity = System.currentTimeMillis();
+            return channel;
+        });
+        published.add(alerts.size());
+    }
+
+    private void unsubscribe(Subscriber sub) {
+        sub.close();
+        Channel channel = channels.get(sub.journeyId);
+        if (channel != null) {
+            channel.subscribers.remove(sub);
+            channel.lastActivity = System.currentTimeMillis();
+        }
+    }
+
+    @Override
+    public void closeJourney(Long journeyId) {
+        Channel channel = channels.remove(journeyId);
+        if (channel == null) return;
+        for (Subscriber sub : channel.subscribers) {
+            sub.close();
+            sub.emitter.complete();
+        }
+    }
+
+    private void heartbeatAndSweep() {
+        long idleBefore = System.currentTimeMillis() - CHANNEL_IDLE_MILLIS;
+        for (Map.Entry<Long, Channel> e : channels.entrySet()) {
+            for (Subscriber sub : e.getValue().subscribers) {
+                if (sub.requestHeartbeat()) senders.execute(sub::drain);
+            }
+            channels.computeIfPresent(e.getKey(), (id, channel) ->
+                    channel.subscribers.isEmpty() && channel.lastActivity < idleBefore ? null : channel);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        int subscribers = 0;
+        for (Channel channel : channels.values()) {
+            subscribers += channel.subscribers.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("channels", channels.size());
+        stats.put("subscribers", subscribers);
+        stats.put("published", published.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("resumeGaps", resumeGaps.sum());
+        stats.put("heartbeats", heartbeats.sum());
+        stats.put("disconnects", disconnects.sum());
+        stats.put("fixToAlertAvgMicros", fixToAlertLatency.getAvgMicros());
+        stats.put("fixToAlertP50Micros", fixToAlertLatency.percentileMicros(50));
+        stats.put("fixToAlertP99Micros", fixToAlertLatency.percentileMicros(99));
+        stats.put("fixToAlertMaxMicros", fixToAlertLatency.getMaxMicros());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Long journeyId : List.copyOf(channels.keySet())) {
+            closeJourney(journeyId);
+        }
+        senders.shutdown();
+    }
+}
@@ -2,8 +2,12 @@ package train.local.fogpass.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import train.local.fogpass.dto.response.DivisionResponse;
 import train.local.fogpass.entity.Division;
 import train.local.fogpass.repository.DivisionRepository;
+import train.local.fogpass.repository.HierarchyBulkInsertRepository;
+import train.local.fogpass.service.HierarchyService;
 import train.local.fogpass.service.DivisionService;
 
 import java.util.List;
@@ -12,30 +16,41 @@ import java.util.List;
 public class DivisionServiceImpl implements DivisionService {
 
     private final DivisionRepository divisionRepository;
+    private final HierarchyBulkInsertRepository bulkInsertRepository;
+    private final HierarchyService hierarchyService;
 
     // Explicit constructor for constructor injection (avoids Lombok dependency issues)
-    public DivisionServiceImpl(DivisionRepository divisionRepository) {
+    public DivisionServiceImpl(DivisionRepository divisionRepository,
+                               HierarchyBulkInsertRepository bulkInsertRepository, HierarchyService hierarchyService) {
         this.divisionRepository = divisionRepository;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.hierarchyService = hierarchyService;
     }
 
     @Override
-    public List<Division> getAllDivisions() {
-        return divisionRepository.findAll();
+    public List<DivisionResponse> getAllDivisions() {
+        return divisionRepository.findAllResponses();
     }
 
     @Override
-    public List<Division> getDivisionsByZone(Long zoneId) {
-        return divisionRepository.findByZoneZoneId(zoneId);
+    public List<DivisionResponse> getDivisionsByZone(Long zoneId) {
+        return divisionRepository.findResponsesByZoneId(zoneId);
     }
 
     @Override
     public Division saveDivision(Division division) {
-        return divisionRepository.save(division);
+        Division saved = divisionRepository.save(division);
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 
     @Override
+    @Transactional
     public List<Division> saveAllDivisions(List<Division> divisions) {
-        return divisionRepository.saveAll(divisions);
+        // Always inserts: batched JDBC, since saveAll is one round trip per row with IDENTITY ids
+        List<Division> saved = bulkInsertRepository.insertDivisions(divisions);
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 
     @Override
@@ -46,5 +61,6 @@ public class DivisionServiceImpl implements DivisionService {
     @Override
     public void deleteDivision(Long id) {
         divisionRepository.deleteById(id);
+        hierarchyService.onHierarchyChanged();
     }
 }
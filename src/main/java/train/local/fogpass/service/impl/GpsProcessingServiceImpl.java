@@ -0,0 +1,461 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.dto.response.GpsBatchResponse;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.exception.TooManyRequestsException;
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.service.AlertService;
+import train.local.fogpass.service.AlertStreamService;
+import train.local.fogpass.service.GpsProcessingService;
+import train.local.fogpass.service.PerformanceSummaryService;
+import train.local.fogpass.service.WriteBehindService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous GPS ingestion pipeline.
+ *
+ * Each journey owns a bounded FIFO of pending fixes. A journey with pending fixes is put on a shared
+ * ready queue exactly once; a worker claims it, drains what it can into its current micro-batch,
+ * keeps claiming other ready journeys until the batch is full or the linger time runs out, and then
+ * evaluates alerts for the whole batch. A journey stays claimed until its fixes are processed, so
+ * fixes of one journey are always handled in arrival order by one worker at a time. Track points
+ * and alerts are handed to the {@link WriteBehindService}; workers never wait on the database.
+ * Ending a journey closes its queue: pending fixes are processed first and later ones are refused.
+ * A sweeper drops closed queues after a short grace period and queues of journeys gone idle.
+ */
+@Service
+public class GpsProcessingServiceImpl implements GpsProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(GpsProcessingServiceImpl.class);
+
+    public enum OverflowPolicy { REJECT, DROP_OLDEST }
+
+    // Pending fixes of one journey; guarded by its own monitor
+    private static final class JourneyQueue {
+        private final long journeyId;
+        private final ArrayDeque<GpsFix> fixes = new ArrayDeque<>();
+        private boolean scheduled; // true while on the ready queue or claimed by a worker / batch upload
+        private long lastSequence = -1; // last store-and-forward seq processed; only touched while claimed
+        private boolean closed;     // journey ended; no further fixes accepted
+        private boolean evicted;    // removed from the map; callers holding it must look the journey up again
+        private long lastActivity = System.currentTimeMillis();
+
+        private JourneyQueue(long journeyId) {
+            this.journeyId = journeyId;
+        }
+    }
+
+    private final AlertService alertService;
+    private final AlertStreamService alertStreamService;
+    private final WriteBehindService writeBehindService;
+    private final PerformanceSummaryService performanceSummaryService;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long batchClaimTimeoutMs;
+    private final long idleEvictMs;
+    private final long closedRetentionMs;
+
+    private final ConcurrentHashMap<Long, JourneyQueue> queues = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<JourneyQueue> ready = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper;
+    private volatile boolean running = true;
+
+    // Counters
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder alertsRaised = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final LongAdder uploads = new LongAdder();
+    private final LongAdder uploadedFixes = new LongAdder();
+    private final LongAdder uploadDuplicates = new LongAdder();
+    private final LongAdder evictedQueues = new LongAdder();
+
+    public GpsProcessingServiceImpl(AlertService alertService,
+                                    AlertStreamService alertStreamService,
+                                    WriteBehindService writeBehindService,
+                                    PerformanceSummaryService performanceSummaryService,
+                                    @Value("${app.gps.queue-capacity:120}") int queueCapacity,
+                                    @Value("${app.gps.batch-size:500}") int batchSize,
+                                    @Value("${app.gps.linger-ms:20}") long lingerMs,
+                                    @Value("${app.gps.workers:4}") int workerCount,
+                                    @Value("${app.gps.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                                    @Value("${app.gps.batch-upload.claim-timeout-ms:5000}") long batchClaimTimeoutMs,
+                                    @Value("${app.gps.idle-queue-evict-minutes:30}") long idleEvictMinutes,
+                                    @Value("${app.gps.closed-queue-retention-seconds:60}") long closedRetentionSeconds) {
+        this.alertService = alertService;
+        this.alertStreamService = alertStreamService;
+        this.writeBehindService = writeBehindService;
+        this.performanceSummaryService = performanceSummaryService;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.overflowPolicy = overflowPolicy;
+        this.batchClaimTimeoutMs = batchClaimTimeoutMs;
+        this.idleEvictMs = TimeUnit.MINUTES.toMillis(idleEvictMinutes);
+        this.closedRetentionMs = TimeUnit.SECONDS.toMillis(closedRetentionSeconds);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "gps-worker-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::workerLoop);
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gps-queue-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictIdleQueues, 30, 30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void submit(GpsFix fix) {
+        JourneyQueue q;
+        boolean schedule;
+        while (true) {
+            q = queues.computeIfAbsent(fix.getJourneyId(), JourneyQueue::new);
+            synchronized (q) {
+                if (q.evicted) continue; // swept meanwhile; a fresh queue takes its place
+                if (q.closed) {
+                    rejected.increment();
+                    throw ended(q);
+                }
+                if (q.fixes.size() >= queueCapacity) {
+                    if (overflowPolicy == OverflowPolicy.REJECT) {
+                        rejected.increment();
+                        throw new TooManyRequestsException("GPS queue full for journey " + fix.getJourneyId());
+                    }
+                    // DROP_OLDEST: the newest position is the one that matters for alerting
+                    q.fixes.pollFirst();
+                    queueDepth.decrementAndGet();
+                    dropped.increment();
+                }
+                q.fixes.addLast(fix);
+                q.lastActivity = System.currentTimeMillis();
+                queueDepth.incrementAndGet();
+                accepted.increment();
+                schedule = !q.scheduled;
+                q.scheduled = true;
+                break;
+            }
+        }
+        if (schedule) {
+            ready.offer(q);
+        }
+    }
+
+    @Override
+    public void submitAll(long journeyId, List<GpsFix> fixes) {
+        int n = fixes.size();
+        if (n == 0) return;
+        if (n > queueCapacity) {
+            throw new BadRequestException("At most " + queueCapacity + " fixes can be queued at once");
+        }
+        JourneyQueue q;
+        boolean schedule;
+        while (true) {
+            q = queues.computeIfAbsent(journeyId, JourneyQueue::new);
+            synchronized (q) {
+                if (q.evicted) continue;
+                if (q.closed) {
+                    rejected.add(n);
+                    throw ended(q);
+                }
+                int overflow = q.fixes.size() + n - queueCapacity;
+                if (overflow > 0) {
+                    if (overflowPolicy == OverflowPolicy.REJECT) {
+                        rejected.add(n);
+                        throw new TooManyRequestsException("GPS queue full for journey " + journeyId);
+                    }
+                    for (int i = 0; i < overflow; i++) {
+                        q.fixes.pollFirst();
+                    }
+                    queueDepth.addAndGet(-overflow);
+                    dropped.add(overflow);
+                }
+                q.fixes.addAll(fixes);
+                q.lastActivity = System.currentTimeMillis();
+                queueDepth.addAndGet(n);
+                accepted.add(n);
+                schedule = !q.scheduled;
+                q.scheduled = true;
+                break;
+            }
+        }
+        if (schedule) {
+            ready.offer(q);
+        }
+    }
+
+    @Override
+    public GpsBatchResponse submitBatch(long journeyId, long[] sequences, List<GpsFix> fixes) {
+        JourneyQueue q = claim(journeyId);
+        int acceptedCount = 0;
+        int duplicates = 0;
+        try {
+            // Processed inline on the caller's thread: a backlog bypasses the bounded live queue
+            // (which would drop most of it) while the claim keeps it ordered with live fixes
+            List<GpsFix> chunk = new ArrayList<>(Math.min(batchSize, fixes.size()));
+            long chunkLastSequence = q.lastSequence;
+            for (int i = 0; i < fixes.size(); i++) {
+                if (sequences[i] <= chunkLastSequence) {
+                    duplicates++;
+                    continue;
+                }
+                chunk.add(fixes.get(i));
+                chunkLastSequence = sequences[i];
+                if (chunk.size() == batchSize) {
+                    processBatch(chunk);
+                    acceptedCount += chunk.size();
+                    q.lastSequence = chunkLastSequence;
+                    chunk.clear();
+                }
+            }
+            processBatch(chunk);
+            acceptedCount += chunk.size();
+            q.lastSequence = chunkLastSequence;
+            return new GpsBatchResponse(q.lastSequence, acceptedCount, duplicates);
+        } finally {
+            release(List.of(q));
+            uploads.increment();
+            uploadedFixes.add(acceptedCount);
+            uploadDuplicates.add(duplicates);
+        }
+    }
+
+    @Override
+    public void closeJourney(long journeyId) {
+        JourneyQueue q = claim(journeyId);
+        List<GpsFix> pending;
+        synchronized (q) {
+            q.closed = true;
+            pending = new ArrayList<>(q.fixes);
+            q.fixes.clear();
+        }
+        queueDepth.addAndGet(-pending.size());
+        try {
+            processBatch(pending);
+        } finally {
+            release(List.of(q));
+        }
+    }
+
+    @Override
+    public void reopenJourney(long journeyId) {
+        JourneyQueue q = queues.get(journeyId);
+        if (q == null) return;
+        synchronized (q) {
+            q.closed = false;
+        }
+    }
+
+    private static BadRequestException ended(JourneyQueue q) {
+        return new BadRequestException("Journey " + q.journeyId + " has ended");
+    }
+
+    // Wait until no worker holds the journey, then hold it ourselves; refused once the journey is closed
+    private JourneyQueue claim(long journeyId) {
+        while (true) {
+            JourneyQueue q = queues.computeIfAbsent(journeyId, JourneyQueue::new);
+            if (claim(q)) return q;
+        }
+    }
+
+    // False if q was evicted meanwhile
+    private boolean claim(JourneyQueue q) {
+        long deadline = System.currentTimeMillis() + batchClaimTimeoutMs;
+        synchronized (q) {
+            try {
+                while (q.scheduled) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new TooManyRequestsException("Journey " + q.journeyId + " is busy; retry the upload");
+                    }
+                    q.wait(remaining);
+                }
+                if (q.evicted) {
+                    return false;
+                }
+                if (q.closed) {
+                    throw ended(q);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TooManyRequestsException("Interrupted while waiting for journey " + q.journeyId);
+            }
+            q.scheduled = true;
+            return true;
+        }
+    }
+
+    private void workerLoop() {
+        List<GpsFix> batch = new ArrayList<>(batchSize);
+        List<JourneyQueue> claimed = new ArrayList<>();
+        while (running || !ready.isEmpty()) {
+            try {
+                JourneyQueue q = ready.poll(1, TimeUnit.SECONDS);
+                if (q == null) continue;
+                drain(q, batch, claimed);
+
+                // Coalesce other ready journeys into the same micro-batch until full or linger expires
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    JourneyQueue next = ready.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    drain(next, batch, claimed);
+                }
+
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("GPS batch processing failed ({} fixes lost)", batch.size(), e);
+            } finally {
+                release(claimed);
+                batch.clear();
+                claimed.clear();
+            }
+        }
+    }
+
+    private void drain(JourneyQueue q, List<GpsFix> batch, List<JourneyQueue> claimed) {
+        int taken = 0;
+        synchronized (q) {
+            GpsFix fix;
+            while (batch.size() < batchSize && (fix = q.fixes.pollFirst()) != null) {
+                batch.add(fix);
+                taken++;
+            }
+        }
+        queueDepth.addAndGet(-taken);
+        claimed.add(q);
+    }
+
+    // Un-claim journeys; any that received fixes meanwhile go straight back on the ready queue
+    private void release(List<JourneyQueue> claimed) {
+        for (JourneyQueue q : claimed) {
+            boolean reschedule;
+            synchronized (q) {
+                reschedule = !q.fixes.isEmpty();
+                q.scheduled = reschedule;
+                q.lastActivity = System.currentTimeMillis();
+                if (!reschedule) q.notifyAll(); // wake a waiting batch upload
+            }
+            if (reschedule) {
+                ready.offer(q);
+            }
+        }
+    }
+
+    // Closed queues only need to outlive requests that were already past the journey checks
+    private void evictIdleQueues() {
+        long now = System.currentTimeMillis();
+        for (JourneyQueue q : queues.values()) {
+            synchronized (q) {
+                long idleFor = now - q.lastActivity;
+                if (!q.scheduled && q.fixes.isEmpty() && idleFor >= (q.closed ? closedRetentionMs : idleEvictMs)) {
+                    q.evicted = true;
+                    queues.remove(q.journeyId, q);
+                    evictedQueues.increment();
+                }
+            }
+        }
+    }
+
+    private void processBatch(List<GpsFix> batch) {
+        if (batch.isEmpty()) return;
+        int n = batch.size();
+        // Fixes of a journey are contiguous and in arrival order within the batch
+        for (GpsFix fix : batch) {
+            int alertCount = 0;
+            try {
+                List<AlertEvent> alerts = alertService.evaluate(fix);
+                alertCount = alerts.size();
+                // Push to the cab first; persistence is off the latency path anyway
+                alertStreamService.publish(fix.getJourneyId(), alerts, fix.getReceivedNanos());
+                for (AlertEvent alert : alerts) {
+                    writeBehindService.enqueueAlert(alert);
+                }
+                alertsRaised.add(alerts.size());
+            } catch (RuntimeException e) {
+                log.warn("Alert evaluation failed for journey {}", fix.getJourneyId(), e);
+            }
+            writeBehindService.enqueueTrackPoint(fix);
+            performanceSummaryService.onFix(fix, alertCount);
+        }
+        processed.add(n);
+        batches.increment();
+        lastBatchSize.set(n);
+        maxBatchSize.accumulateAndGet(n, Math::max);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long batchCount = batches.sum();
+        long processedCount = processed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queueDepth.get());
+        stats.put("readyJourneys", ready.size());
+        stats.put("trackedJourneys", queues.size());
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("processed", processedCount);
+        stats.put("alertsRaised", alertsRaised.sum());
+        stats.put("batches", batchCount);
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) processedCount / batchCount);
+        stats.put("batchUploads", uploads.sum());
+        stats.put("batchUploadedFixes", uploadedFixes.sum());
+        stats.put("batchDuplicates", uploadDuplicates.sum());
+        stats.put("evictedQueues", evictedQueues.sum());
+        stats.put("overflowPolicy", overflowPolicy.name());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let workers drain whatever is still queued into the write-behind buffer
+        running = false;
+        sweeper.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+}
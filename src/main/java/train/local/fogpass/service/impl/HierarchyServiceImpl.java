@@ -0,0 +1,202 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.model.HierarchySnapshot;
+import train.local.fogpass.service.HierarchyService;
+import train.local.fogpass.util.LongHashSet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the org tree in memory as one {@link HierarchySnapshot}. Readers only dereference the current
+ * snapshot; a committed change through the zone, division or section services rebuilds the tree with three
+ * id/name queries and swaps the reference, so no reader ever sees a half-updated tree.
+ */
+@Service
+public class HierarchyServiceImpl implements HierarchyService {
+
+    private static final Logger log = LoggerFactory.getLogger(HierarchyServiceImpl.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<HierarchySnapshot> current = new AtomicReference<>();
+    private long generation; // guarded by this
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    public HierarchyServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public HierarchySnapshot getSnapshot() {
+        reads.increment();
+        HierarchySnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild(false);
+    }
+
+    @Override
+    public void onHierarchyChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rebuilding before commit would read the old rows
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        try {
+            rebuild(true);
+        } catch (RuntimeException e) {
+            // The change is already committed: drop the stale tree so the next read rebuilds it
+            current.set(null);
+            log.warn("Hierarchy rebuild failed; will retry on next read", e);
+        }
+    }
+
+    // Serialized so the last swap always comes from the latest read of the tables
+    private synchronized HierarchySnapshot rebuild(boolean force) {
+        HierarchySnapshot existing = current.get();
+        if (existing != null && !force) return existing;
+        long start = System.nanoTime();
+
+        Map<Long, HierarchySnapshot.ZoneNode> zones = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT zone_id, zone_name FROM zones ORDER BY zone_id", rs -> {
+            long id = rs.getLong(1);
+            zones.put(id, new HierarchySnapshot.ZoneNode(id, rs.getString(2)));
+        });
+        Map<Long, HierarchySnapshot.DivisionNode> divisions = new LinkedHashMap<>();
+        Map<Long, LongHashSet> divisionsByZone = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, zone_id FROM divisions ORDER BY id", rs -> {
+            long id = rs.getLong(1);
+            Long zoneId = rs.getObject(3, Long.class);
+            divisions.put(id, new HierarchySnapshot.DivisionNode(id, rs.getString(2), zoneId));
+            if (zoneId != null) divisionsByZone.computeIfAbsent(zoneId, k -> new LongHashSet()).add(id);
+        });
+        Map<Long, HierarchySnapshot.SectionNode> sections = new LinkedHashMap<>();
+        Map<Long, LongHashSet> sectionsByDivision = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name, division_id FROM sections ORDER BY id", rs -> {
+            long id = rs.getLong(1);
+            Long divisionId = rs.getObject(3, Long.class);
+            sections.put(id, new HierarchySnapshot.SectionNode(id, rs.getString(2), divisionId));
+            if (divisionId != null) sectionsByDivision.computeIfAbsent(divisionId, k -> new LongHashSet()).add(id);
+        });
+
+        byte[] json;
+        try {
+            json = writeTreeJson(zones, divisions, sections);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize the zone hierarchy", e);
+        }
+        HierarchySnapshot snapshot = new HierarchySnapshot(++generation, sha256Prefix(json), zones, divisions, sections,
+                divisionsByZone, sectionsByDivision, json, System.currentTimeMillis());
+        current.set(snapshot);
+
+        long elapsed = System.nanoTime() - start;
+        builds.increment();
+        buildNanos.add(elapsed);
+        log.debug("Built hierarchy v{}: {} zones, {} divisions, {} sections in {} ms",
+                snapshot.getVersion(), zones.size(), divisions.size(), sections.size(), elapsed / 1_000_000);
+        return snapshot;
+    }
+
+    // [{zoneId, zoneName, divisions: [{divisionId, divisionName, sections: [{sectionId, sectionName}]}]}]
+    private byte[] writeTreeJson(Map<Long, HierarchySnapshot.ZoneNode> zones,
+                                 Map<Long, HierarchySnapshot.DivisionNode> divisions,
+                                 Map<Long, HierarchySnapshot.SectionNode> sections) throws IOException {
+        // Children grouped in id order; divisions or sections whose parent is missing are left out
+        Map<Long, List<HierarchySnapshot.DivisionNode>> childDivisions = new HashMap<>();
+        for (HierarchySnapshot.DivisionNode d : divisions.values()) {
+            if (d.zoneId() != null) childDivisions.computeIfAbsent(d.zoneId(), k -> new ArrayList<>()).add(d);
+        }
+        Map<Long, List<HierarchySnapshot.SectionNode>> childSections = new HashMap<>();
+        for (HierarchySnapshot.SectionNode s : sections.values()) {
+            if (s.divisionId() != null) childSections.computeIfAbsent(s.divisionId(), k -> new ArrayList<>()).add(s);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            g.writeStartArray();
+            for (HierarchySnapshot.ZoneNode z : zones.values()) {
+                g.writeStartObject();
+                g.writeNumberField("zoneId", z.id());
+                g.writeStringField("zoneName", z.name());
+                g.writeArrayFieldStart("divisions");
+                for (HierarchySnapshot.DivisionNode d : childDivisions.getOrDefault(z.id(), List.of())) {
+                    g.writeStartObject();
+                    g.writeNumberField("divisionId", d.id());
+                    g.writeStringField("divisionName", d.name());
+                    g.writeArrayFieldStart("sections");
+                    for (HierarchySnapshot.SectionNode s : childSections.getOrDefault(d.id(), List.of())) {
+                        g.writeStartObject();
+                        g.writeNumberField("sectionId", s.id());
+                        g.writeStringField("sectionName", s.name());
+                        g.writeEndObject();
+                    }
+                    g.writeEndArray();
+                    g.writeEndObject();
+                }
+                g.writeEndArray();
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256Prefix(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        HierarchySnapshot snapshot = current.get();
+        long buildCount = builds.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", snapshot != null ? snapshot.getVersion() : null);
+        stats.put("generation", snapshot != null ? snapshot.getGeneration() : 0);
+        stats.put("zones", snapshot != null ? snapshot.getZones().size() : 0);
+        stats.put("divisions", snapshot != null ? snapshot.getDivisions().size() : 0);
+        stats.put("sections", snapshot != null ? snapshot.getSections().size() : 0);
+        stats.put("jsonBytes", snapshot != null ? snapshot.getJson().length : 0);
+        stats.put("builtAt", snapshot != null ? snapshot.getBuiltAt() : 0);
+        stats.put("reads", reads.sum());
+        stats.put("builds", buildCount);
+        stats.put("avgBuildMillis", buildCount == 0 ? 0.0 : buildNanos.sum() / 1e6 / buildCount);
+        return stats;
+    }
+}
@@ -0,0 +1,134 @@
+package train.local.fogpass.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.entity.enums.JourneyStatus;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.security.RoleConstants;
+import train.local.fogpass.security.SecurityUtil;
+import train.local.fogpass.security.UserPrincipal;
+import train.local.fogpass.service.JourneyAccessService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Existence, status and ownership checks for the per-journey endpoints. Only journeys in progress are
+ * cached (owner id and status, loaded by primary key), so a GPS fix costs a map lookup; ending a journey
+ * evicts it after commit and the TTL bounds how long another instance keeps accepting its fixes.
+ */
+@Service
+public class JourneyAccessServiceImpl implements JourneyAccessService {
+
+    private record Entry(Long ownerId, JourneyStatus status, long loadedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final ConcurrentHashMap<Long, Entry> journeys = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public JourneyAccessServiceImpl(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.journeys.access-cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${app.journeys.access-cache.max-size:10000}") int maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void requireActive(Long journeyId) {
+        Entry entry = lookup(journeyId);
+        checkOwner(journeyId, entry);
+        if (entry.status() != JourneyStatus.IN_PROGRESS) {
+            denied.increment();
+            throw new BadRequestException("Journey " + journeyId + " is not in progress");
+        }
+    }
+
+    @Override
+    public void requireOwned(Long journeyId) {
+        checkOwner(journeyId, lookup(journeyId));
+    }
+
+    private void checkOwner(Long journeyId, Entry entry) {
+        UserPrincipal principal = SecurityUtil.getCurrentUserPrincipal()
+                .orElseThrow(() -> new AccessDeniedException("Unauthenticated"));
+        if (!Objects.equals(entry.ownerId(), principal.getId())
+                && !principal.getRoleNames().contains(RoleConstants.SUPER_ADMIN)) {
+            denied.increment();
+            throw new AccessDeniedException("Journey " + journeyId + " belongs to another user");
+        }
+    }
+
+    private Entry lookup(Long journeyId) {
+        long now = System.currentTimeMillis();
+        Entry entry = journeys.get(journeyId);
+        if (entry != null && now - entry.loadedAt() < ttlMillis) {
+            hits.increment();
+            return entry;
+        }
+        List<Entry> rows = jdbcTemplate.query("SELECT user_id, status FROM journeys WHERE id = ?",
+                (rs, i) -> {
+                    long ownerId = rs.getLong(1);
+                    String status = rs.getString(2);
+                    return new Entry(rs.wasNull() ? null : ownerId,
+                            status != null ? JourneyStatus.valueOf(status) : null, now);
+                }, journeyId);
+        loads.increment();
+        if (rows.isEmpty()) {
+            journeys.remove(journeyId);
+            denied.increment();
+            throw new ResourceNotFoundException("Journey not found with id: " + journeyId);
+        }
+        entry = rows.get(0);
+        if (entry.status() == JourneyStatus.IN_PROGRESS) {
+            if (journeys.size() >= maxSize) {
+                // Journeys abandoned without an end only leave through the TTL
+                journeys.values().removeIf(e -> now - e.loadedAt() >= ttlMillis);
+            }
+            journeys.put(journeyId, entry);
+        } else {
+            journeys.remove(journeyId);
+        }
+        return entry;
+    }
+
+    @Override
+    public void evict(Long journeyId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    journeys.remove(journeyId);
+                }
+            });
+        } else {
+            journeys.remove(journeyId);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedJourneys", journeys.size());
+        stats.put("hits", hits.sum());
+        stats.put("loads", loads.sum());
+        stats.put("denied", denied.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,141 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.service.JourneyLogExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams journey_logs straight from a MySQL streaming result set to the HTTP response.
+ *
+ * The statement is forward-only/read-only with fetch size {@link Integer#MIN_VALUE}, which makes
+ * Connector/J hand over rows one at a time instead of buffering the whole result. Each row is
+ * written to a buffered writer as soon as it arrives; nothing is collected, and no entities are built.
+ */
+@Service
+public class JourneyLogExportServiceImpl implements JourneyLogExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(JourneyLogExportServiceImpl.class);
+
+    private static final String[] CSV_HEADER = {"id", "journey_id", "log_timestamp", "event_type", "event_data"};
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JourneyLogExportServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long export(Long journeyId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        long[] rows = {0};
+        try {
+            if (format == Format.CSV) {
+                ICSVWriter csv = new CSVWriter(writer);
+                csv.writeNext(CSV_HEADER, false);
+                String[] line = new String[CSV_HEADER.length];
+                query(journeyId, from, to, rs -> {
+                    line[0] = Long.toString(rs.getLong(1));
+                    line[1] = Long.toString(rs.getLong(2));
+                    LocalDateTime ts = rs.getObject(3, LocalDateTime.class);
+                    line[2] = ts != null ? ts.toString() : null;
+                    line[3] = rs.getString(4);
+                    line[4] = rs.getString(5);
+                    csv.writeNext(line, false);
+                    if (csv.getException() != null) {
+                        // CSVWriter swallows write errors; stop reading once the client is gone
+                        throw new UncheckedIOException(csv.getException());
+                    }
+                    rows[0]++;
+                });
+                csv.flush();
+            } else {
+                JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+                json.setRootValueSeparator(null);
+                query(journeyId, from, to, rs -> {
+                    try {
+                        json.writeStartObject();
+                        json.writeNumberField("id", rs.getLong(1));
+                        json.writeNumberField("journeyId", rs.getLong(2));
+                        LocalDateTime ts = rs.getObject(3, LocalDateTime.class);
+                        json.writeStringField("logTimestamp", ts != null ? ts.toString() : null);
+                        json.writeStringField("eventType", rs.getString(4));
+                        String data = rs.getString(5);
+                        json.writeFieldName("eventData");
+                        // Already JSON (json column): copy it through without re-parsing
+                        if (data != null) json.writeRawValue(data);
+                        else json.writeNull();
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                json.flush();
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Client disconnected mid-export; the cursor has already been closed by JdbcTemplate
+            throw e.getCause();
+        }
+        log.info("Exported {} journey_logs rows as {} in {} ms", rows[0], format, System.currentTimeMillis() - start);
+        return rows[0];
+    }
+
+    private void query(Long journeyId, LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, journey_id, log_timestamp, event_type, event_data FROM journey_logs WHERE 1 = 1");
+        List<Object> params = new ArrayList<>(3);
+        if (journeyId != null) {
+            sql.append(" AND journey_id = ?");
+            params.add(journeyId);
+        }
+        // Range predicates on log_timestamp let MySQL use idx_journey_logs_log_timestamp. LocalDateTime is bound
+        // and read as-is (not via java.sql.Timestamp), so the JVM time zone cannot shift the window
+        if (from != null) {
+            sql.append(" AND log_timestamp >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND log_timestamp < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY log_timestamp, id");
+
+        PreparedStatementCreator statement = con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // Connector/J row-by-row streaming
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        };
+        jdbcTemplate.query(statement, handler);
+    }
+}
@@ -0,0 +1,199 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.service.JourneyLogPartitionService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monthly RANGE COLUMNS partitioning of journey_logs on log_timestamp.
+ *
+ * Partition p202610 holds rows with log_timestamp &lt; 2026-11-01 (and &gt;= the previous bound);
+ * pmax catches anything beyond the last month created. Because every query filters on a plain
+ * log_timestamp range, MySQL prunes to the matching months, and retention is an instant
+ * DROP PARTITION instead of a DELETE over millions of rows.
+ *
+ * Converting the table (first run) drops its foreign keys and widens the primary key to
+ * (id, log_timestamp), both required by MySQL for partitioned tables. That first ALTER copies the
+ * table once; later runs only split the empty pmax partition and drop expired months.
+ */
+@Service
+public class JourneyLogPartitionServiceImpl implements JourneyLogPartitionService, ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JourneyLogPartitionServiceImpl.class);
+
+    private static final String TABLE = "journey_logs";
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final long intervalHours;
+
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder partitionsCreated = new LongAdder();
+    private final LongAdder partitionsDropped = new LongAdder();
+    private volatile long lastRunAt;
+    private volatile String lastError;
+
+    public JourneyLogPartitionServiceImpl(JdbcTemplate jdbcTemplate,
+                                          @Value("${app.journey-logs.partitioning.enabled:false}") boolean enabled,
+                                          @Value("${app.journey-logs.partitioning.months-ahead:3}") int monthsAhead,
+                                          @Value("${app.journey-logs.retention-months:12}") int retentionMonths,
+                                          @Value("${app.journey-logs.partitioning.interval-hours:24}") long intervalHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.intervalHours = intervalHours;
+    }
+
+    // Runs after Hibernate has created/updated the schema
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journey-log-partitions");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintainSafely, 0, intervalHours, TimeUnit.HOURS);
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("journey_logs partition maintenance failed", e);
+        }
+    }
+
+    @Override
+    public synchronized void maintain() {
+        if (!enabled) return;
+        YearMonth current = YearMonth.now(ZoneOffset.UTC); // log_timestamp is stored in UTC
+        List<YearMonth> existing = existingMonths();
+        if (existing.isEmpty()) {
+            partitionTable(current);
+        } else {
+            YearMonth last = existing.get(existing.size() - 1);
+            List<YearMonth> toAdd = new ArrayList<>();
+            for (YearMonth m = last.plusMonths(1); !m.isAfter(current.plusMonths(monthsAhead)); m = m.plusMonths(1)) {
+                toAdd.add(m);
+            }
+            if (!toAdd.isEmpty()) {
+                // pmax is empty as long as we stay monthsAhead in front, so this split is metadata-only
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+                        + " INTO (" + partitionDefinitions(toAdd) + ")");
+                partitionsCreated.add(toAdd.size());
+                log.info("Added journey_logs partitions {} .. {}", toAdd.get(0), toAdd.get(toAdd.size() - 1));
+            }
+        }
+        dropExpired(current.minusMonths(retentionMonths));
+        lastRunAt = System.currentTimeMillis();
+    }
+
+    // Months that currently have a partition, ascending (pmax excluded)
+    private List<YearMonth> existingMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION", String.class, TABLE);
+        List<YearMonth> months = new ArrayList<>(names.size());
+        for (String name : names) {
+            if (!name.equals(MAX_PARTITION)) months.add(YearMonth.parse(name, PARTITION_NAME));
+        }
+        return months;
+    }
+
+    private void partitionTable(YearMonth current) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(log_timestamp) FROM " + TABLE, LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : current;
+        if (first.isBefore(current.minusMonths(retentionMonths))) {
+            first = current.minusMonths(retentionMonths); // older rows land in the first partition and expire with it
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = first; !m.isAfter(current.plusMonths(monthsAhead)); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+
+        for (String fk : jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, TABLE)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY " + fk);
+        }
+        log.info("Partitioning journey_logs by month from {} (one-time table rebuild)", first);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " MODIFY log_timestamp DATETIME(6) NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, log_timestamp)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS (log_timestamp) ("
+                + partitionDefinitions(months) + ")");
+        partitionsCreated.add(months.size());
+    }
+
+    private static String partitionDefinitions(List<YearMonth> months) {
+        StringBuilder sb = new StringBuilder();
+        for (YearMonth m : months) {
+            LocalDate upper = m.plusMonths(1).atDay(1);
+            sb.append("PARTITION ").append(m.format(PARTITION_NAME))
+                    .append(" VALUES LESS THAN ('").append(upper).append(" 00:00:00'), ");
+        }
+        return sb.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+
+    // Drop every month that ends on or before the cutoff month's start
+    private void dropExpired(YearMonth cutoff) {
+        List<String> expired = new ArrayList<>();
+        List<YearMonth> months = existingMonths();
+        // Always keep at least one month partition below pmax
+        for (int i = 0; i < months.size() - 1; i++) {
+            if (months.get(i).isBefore(cutoff)) expired.add(months.get(i).format(PARTITION_NAME));
+        }
+        if (expired.isEmpty()) return;
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+        partitionsDropped.add(expired.size());
+        log.info("Dropped expired journey_logs partitions {}", expired);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("retentionMonths", retentionMonths);
+        stats.put("monthsAhead", monthsAhead);
+        stats.put("partitionsCreated", partitionsCreated.sum());
+        stats.put("partitionsDropped", partitionsDropped.sum());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+}
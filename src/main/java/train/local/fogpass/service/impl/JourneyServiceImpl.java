@@ -1,3 +1,108 @@
 package train.local.fogpass.service.impl;
 
-public class JourneyServiceImpl {}
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.dto.response.PerformanceSummaryResponse;
+import train.local.fogpass.entity.Journey;
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.entity.enums.JourneyStatus;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.model.JourneyLogRecord;
+import train.local.fogpass.repository.JourneyRepository;
+import train.local.fogpass.service.AlertService;
+import train.local.fogpass.service.AlertStreamService;
+import train.local.fogpass.service.GpsProcessingService;
+import train.local.fogpass.service.JourneyAccessService;
+import train.local.fogpass.service.JourneyService;
+import train.local.fogpass.service.PerformanceSummaryService;
+import train.local.fogpass.service.WriteBehindService;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+@Service
+public class JourneyServiceImpl implements JourneyService {
+
+    private final JourneyRepository journeyRepository;
+    private final PerformanceSummaryService performanceSummaryService;
+    private final AlertService alertService;
+    private final AlertStreamService alertStreamService;
+    private final GpsProcessingService gpsProcessingService;
+    private final JourneyAccessService journeyAccessService;
+    private final WriteBehindService writeBehindService;
+    private final ObjectMapper objectMapper;
+
+    public JourneyServiceImpl(JourneyRepository journeyRepository,
+                              PerformanceSummaryService performanceSummaryService,
+                              AlertService alertService,
+                              AlertStreamService alertStreamService,
+                              GpsProcessingService gpsProcessingService,
+                              JourneyAccessService journeyAccessService,
+                              WriteBehindService writeBehindService,
+                              ObjectMapper objectMapper) {
+        this.journeyRepository = journeyRepository;
+        this.performanceSummaryService = performanceSummaryService;
+        this.alertService = alertService;
+        this.alertStreamService = alertStreamService;
+        this.gpsProcessingService = gpsProcessingService;
+        this.journeyAccessService = journeyAccessService;
+        this.writeBehindService = writeBehindService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public PerformanceSummaryResponse endJourney(Long journeyId) {
+        Journey journey = journeyRepository.findById(journeyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Journey not found with id: " + journeyId));
+        if (journey.getStatus() == JourneyStatus.COMPLETED || journey.getStatus() == JourneyStatus.CANCELLED) {
+            throw new BadRequestException("Journey " + journeyId + " has already ended");
+        }
+        journey.setStatus(JourneyStatus.COMPLETED);
+        journey.setEndTime(LocalDateTime.now(ZoneOffset.UTC));
+        journeyAccessService.evict(journeyId);
+        // Fixes still queued count towards the summary; later ones are refused
+        gpsProcessingService.closeJourney(journeyId);
+
+        // Keep the live state until the summary is committed, so a rollback loses nothing
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    gpsProcessingService.reopenJourney(journeyId);
+                    return;
+                }
+                performanceSummaryService.endJourney(journeyId);
+                alertService.endJourney(journeyId);
+                alertStreamService.closeJourney(journeyId);
+            }
+        });
+        PerformanceSummary summary = performanceSummaryService.complete(journey);
+
+        // Journey event log: written through the write-behind buffer once the end is committed
+        String eventData = objectMapper.createObjectNode()
+                .put("status", journey.getStatus().name())
+                .put("punctualityStatus", summary.getPunctualityStatus() != null ? summary.getPunctualityStatus().name() : null)
+                .put("totalAlerts", summary.getTotalAlerts())
+                .put("efficiencyScore", summary.getEfficiencyScore())
+                .toString();
+        long endedAt = System.currentTimeMillis();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                writeBehindService.enqueueLog(new JourneyLogRecord(journeyId, endedAt, "JOURNEY_ENDED", eventData));
+            }
+        });
+        return PerformanceSummaryResponse.from(journeyId, summary, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PerformanceSummaryResponse getPerformanceSummary(Long journeyId) {
+        return performanceSummaryService.getSummary(journeyId);
+    }
+}
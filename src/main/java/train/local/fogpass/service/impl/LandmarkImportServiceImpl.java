@@ -0,0 +1,250 @@
+package train.local.fogpass.service.impl;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.dto.response.LandmarkImportResponse;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.repository.RouteRepository;
+import train.local.fogpass.service.LandmarkImportService;
+import train.local.fogpass.service.LandmarkIndexService;
+import train.local.fogpass.service.RoutePackageService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Landmark CSV import. The file is read one record at a time with opencsv and valid rows are
+ * upserted through JdbcTemplate batches (a multi-row INSERT per batch with rewriteBatchedStatements),
+ * so memory stays flat whatever the file size and no JPA entities are created. A row whose
+ * (routeId, sequenceOrder) already exists replaces that landmark's fields, so imports are repeatable.
+ *
+ * Expected header (case-insensitive, any order): routeId, sequenceOrder, latitude, longitude and
+ * optionally locationCode, landmarkType, name, prewarningDistance, direction.
+ */
+@Service
+public class LandmarkImportServiceImpl implements LandmarkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(LandmarkImportServiceImpl.class);
+
+    // Upsert on idx_landmarks_route_seq (unique): a re-import updates rows in place and keeps their ids (alerts refer to them)
+    private static final String UPSERT_SQL =
+            "INSERT INTO landmarks (route_id, sequence_order, location_code, landmark_type, name, latitude, longitude, "
+                    + "prewarning_distance, direction) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE location_code = VALUES(location_code), landmark_type = VALUES(landmark_type), "
+                    + "name = VALUES(name), latitude = VALUES(latitude), longitude = VALUES(longitude), "
+                    + "prewarning_distance = VALUES(prewarning_distance), direction = VALUES(direction)";
+
+    private static final String[] REQUIRED_COLUMNS = {"routeid", "sequenceorder", "latitude", "longitude"};
+    private static final BigDecimal MAX_LAT = BigDecimal.valueOf(90);
+    private static final BigDecimal MAX_LON = BigDecimal.valueOf(180);
+
+    private static final class Row {
+        private long line;
+        private long routeId;
+        private int sequenceOrder;
+        private String locationCode;
+        private String landmarkType;
+        private String name;
+        private BigDecimal latitude;
+        private BigDecimal longitude;
+        private Integer prewarningDistance;
+        private String direction;
+    }
+
+    private static final ParameterizedPreparedStatementSetter<Row> ROW_SETTER = (ps, r) -> {
+        ps.setLong(1, r.routeId);
+        ps.setInt(2, r.sequenceOrder);
+        ps.setString(3, r.locationCode);
+        ps.setString(4, r.landmarkType);
+        ps.setString(5, r.name);
+        ps.setBigDecimal(6, r.latitude);
+        ps.setBigDecimal(7, r.longitude);
+        if (r.prewarningDistance != null) ps.setInt(8, r.prewarningDistance);
+        else ps.setNull(8, Types.INTEGER);
+        ps.setString(9, r.direction);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RouteRepository routeRepository;
+    private final LandmarkIndexService landmarkIndexService;
+    private final RoutePackageService routePackageService;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public LandmarkImportServiceImpl(JdbcTemplate jdbcTemplate,
+                                     RouteRepository routeRepository,
+                                     LandmarkIndexService landmarkIndexService,
+                                     RoutePackageService routePackageService,
+                                     @Value("${app.landmarks.import.batch-size:1000}") int batchSize,
+                                     @Value("${app.landmarks.import.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.routeRepository = routeRepository;
+        this.landmarkIndexService = landmarkIndexService;
+        this.routePackageService = routePackageService;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public LandmarkImportResponse importCsv(InputStream csv) {
+        long start = System.currentTimeMillis();
+        LandmarkImportResponse result = new LandmarkImportResponse();
+        Set<Long> knownRoutes = new HashSet<>(routeRepository.findAllIds());
+        Set<Long> touchedRoutes = new HashSet<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        try (CSVReader reader = new CSVReaderBuilder(new InputStreamReader(csv, StandardCharsets.UTF_8)).build()) {
+            Map<String, Integer> columns = readHeader(reader.readNext());
+            String[] record;
+            while (true) {
+                try {
+                    record = reader.readNext();
+                } catch (CsvValidationException e) {
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    error(result, reader.getLinesRead(), e.getMessage());
+                    continue;
+                }
+                if (record == null) break;
+                if (record.length == 1 && record[0].isBlank()) continue; // trailing empty line
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                Row row = new Row();
+                row.line = reader.getLinesRead();
+                String problem = parse(record, columns, knownRoutes, row);
+                if (problem != null) {
+                    error(result, row.line, problem);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    insert(batch, result, touchedRoutes);
+                    batch.clear();
+                }
+            }
+            insert(batch, result, touchedRoutes);
+        } catch (IOException | CsvValidationException e) {
+            throw new BadRequestException("Unreadable landmark CSV: " + e.getMessage());
+        } finally {
+            // Inserted over JDBC, so the entity listener never saw these rows: refresh each route once
+            for (Long routeId : touchedRoutes) {
+                landmarkIndexService.onLandmarksChanged(routeId);
+                routePackageService.onRouteChanged(routeId);
+            }
+            result.setRoutesRefreshed(touchedRoutes.size());
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+        }
+        log.info("Landmark import: {} rows, {} imported, {} failed, {} routes in {} ms",
+                result.getTotalRows(), result.getImported(), result.getFailed(),
+                result.getRoutesRefreshed(), result.getElapsedMillis());
+        return result;
+    }
+
+    private static Map<String, Integer> readHeader(String[] header) {
+        if (header == null) {
+            throw new BadRequestException("Landmark CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            // Tolerate a UTF-8 BOM and snake_case/spaced names
+            String name = header[i].replace("\uFEFF", "").replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("Landmark CSV header is missing column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    // Fills the row; returns an error message, or null if the row is valid
+    private static String parse(String[] record, Map<String, Integer> columns, Set<Long> knownRoutes, Row row) {
+        try {
+            String routeId = field(record, columns, "routeid");
+            String sequenceOrder = field(record, columns, "sequenceorder");
+            String latitude = field(record, columns, "latitude");
+            String longitude = field(record, columns, "longitude");
+            if (routeId == null || sequenceOrder == null || latitude == null || longitude == null) {
+                return "routeId, sequenceOrder, latitude and longitude are required";
+            }
+            row.routeId = Long.parseLong(routeId);
+            if (!knownRoutes.contains(row.routeId)) {
+                return "Unknown routeId " + row.routeId;
+            }
+            row.sequenceOrder = Integer.parseInt(sequenceOrder);
+            row.latitude = new BigDecimal(latitude);
+            row.longitude = new BigDecimal(longitude);
+            if (row.latitude.abs().compareTo(MAX_LAT) > 0 || row.longitude.abs().compareTo(MAX_LON) > 0) {
+                return "Coordinates out of range";
+            }
+            String prewarning = field(record, columns, "prewarningdistance");
+            if (prewarning != null) {
+                row.prewarningDistance = Integer.parseInt(prewarning);
+                if (row.prewarningDistance < 0) return "prewarningDistance must not be negative";
+            }
+            row.direction = field(record, columns, "direction");
+            row.locationCode = field(record, columns, "locationcode");
+            row.landmarkType = field(record, columns, "landmarktype");
+            row.name = field(record, columns, "name");
+            return null;
+        } catch (NumberFormatException e) {
+            return "Invalid number: " + e.getMessage();
+        }
+    }
+
+    private static String field(String[] record, Map<String, Integer> columns, String column) {
+        Integer i = columns.get(column);
+        if (i == null || i >= record.length) return null;
+        String value = record[i].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void insert(List<Row> batch, LandmarkImportResponse result, Set<Long> touchedRoutes) {
+        if (batch.isEmpty()) return;
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), ROW_SETTER);
+            result.setImported(result.getImported() + batch.size());
+            for (Row r : batch) touchedRoutes.add(r.routeId);
+        } catch (DataAccessException batchFailure) {
+            // Re-run the failed batch row by row so each bad row gets its own error
+            for (Row r : batch) {
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, ps -> ROW_SETTER.setValues(ps, r));
+                    result.setImported(result.getImported() + 1);
+                    touchedRoutes.add(r.routeId);
+                } catch (DataAccessException e) {
+                    error(result, r.line, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private void error(LandmarkImportResponse result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new LandmarkImportResponse.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+}
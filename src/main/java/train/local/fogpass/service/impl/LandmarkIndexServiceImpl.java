@@ -0,0 +1,166 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.model.RouteLandmarks;
+import train.local.fogpass.entity.Route;
+import train.local.fogpass.repository.LandmarkRepository;
+import train.local.fogpass.repository.RouteRepository;
+import train.local.fogpass.service.LandmarkIndexService;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route in-memory landmark index. Lookups are served entirely from an immutable
+ * {@link RouteLandmarks} snapshot; a change to a route's landmarks rebuilds only that route
+ * in the background and swaps the new snapshot in, so readers never block or see partial state.
+ */
+@Service
+public class LandmarkIndexServiceImpl implements LandmarkIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(LandmarkIndexServiceImpl.class);
+
+    private final LandmarkRepository landmarkRepository;
+    private final RouteRepository routeRepository;
+    private final int defaultPrewarning;
+
+    private final ConcurrentHashMap<Long, RouteLandmarks> routes = new ConcurrentHashMap<>();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "landmark-index-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder truncatedLookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+
+    public LandmarkIndexServiceImpl(LandmarkRepository landmarkRepository,
+                                    RouteRepository routeRepository,
+                                    @Value("${app.landmarks.default-prewarning-m:500}") int defaultPrewarning) {
+        this.landmarkRepository = landmarkRepository;
+        this.routeRepository = routeRepository;
+        this.defaultPrewarning = defaultPrewarning;
+    }
+
+    @Override
+    public RouteLandmarks getRouteIndex(Long routeId) {
+        RouteLandmarks index = routes.get(routeId);
+        if (index != null) {
+            hits.increment();
+            return index;
+        }
+        misses.increment();
+        // Loaded outside the map so no bin lock is held across the queries
+        RouteLandmarks loaded = load(routeId);
+        RouteLandmarks existing = routes.putIfAbsent(routeId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    @Override
+    public int findWithinPrewarning(Long routeId, double latitude, double longitude, int[] out) {
+        RouteLandmarks index = getRouteIndex(routeId);
+        long start = System.nanoTime();
+        int n = index.withinPrewarning(latitude, longitude, out);
+        long elapsed = System.nanoTime() - start;
+        lookups.increment();
+        if (n > out.length) truncatedLookups.increment();
+        lookupNanos.add(elapsed);
+        maxLookupNanos.accumulateAndGet(elapsed, Math::max);
+        return n;
+    }
+
+    @Override
+    public void refreshRoute(Long routeId) {
+        routes.put(routeId, load(routeId));
+        rebuilds.increment();
+    }
+
+    @Override
+    public void onLandmarksChanged(Long routeId) {
+        if (routeId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuildInBackground(routeId);
+            return;
+        }
+        // One synchronization per transaction, holding every route it touched
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> routeIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, routeIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    routeIds.forEach(LandmarkIndexServiceImpl.this::rebuildInBackground);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LandmarkIndexServiceImpl.this);
+                }
+            });
+            pending = routeIds;
+        }
+        pending.add(routeId);
+    }
+
+    private void rebuildInBackground(Long routeId) {
+        rebuilder.execute(() -> {
+            try {
+                refreshRoute(routeId);
+            } catch (RuntimeException e) {
+                // Drop the stale snapshot so the next lookup reloads it
+                routes.remove(routeId);
+                log.warn("Landmark index rebuild failed for route {}", routeId, e);
+            }
+        });
+    }
+
+    private RouteLandmarks load(Long routeId) {
+        String direction = routeRepository.findById(routeId).map(Route::getDirection).orElse(null);
+        return RouteLandmarks.build(routeId, direction,
+                landmarkRepository.findByRoute_IdOrderBySequenceOrderAsc(routeId), defaultPrewarning);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedRoutes", routes.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("rebuilds", rebuilds.sum());
+        stats.put("lookups", lookupCount);
+        stats.put("truncatedLookups", truncatedLookups.sum());
+        stats.put("avgLookupMicros", lookupCount == 0 ? 0.0 : lookupNanos.sum() / 1000.0 / lookupCount);
+        stats.put("maxLookupMicros", maxLookupNanos.get() / 1000.0);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,311 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import train.local.fogpass.dto.response.RescoreJobResponse;
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.entity.RescoreJob;
+import train.local.fogpass.entity.enums.JourneyStatus;
+import train.local.fogpass.entity.enums.RescoreJobStatus;
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.model.PerformanceAccumulator;
+import train.local.fogpass.repository.RescoreJobRepository;
+import train.local.fogpass.service.PerformanceRescoreService;
+import train.local.fogpass.service.TrackService;
+import train.local.fogpass.util.FixEncoding;
+import train.local.fogpass.util.PerformanceScoring;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recomputes persisted performance summaries after a scoring change.
+ *
+ * The job's journey id span is cut into fixed-size ranges. A coordinator thread hands ranges to
+ * virtual threads, at most {@code parallelism} at a time (each holds one pooled connection while it
+ * streams tracks). A range replays every completed journey's track through the same
+ * {@link PerformanceAccumulator}/{@link PerformanceScoring} path as live journeys, then upserts the
+ * range's summaries in one JDBC batch together with its checkpoint row, in one transaction. Ranges are
+ * independent, so throughput grows with parallelism until the database saturates, and a resumed job
+ * simply skips checkpointed ranges.
+ */
+@Service
+public class PerformanceRescoreServiceImpl implements PerformanceRescoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(PerformanceRescoreServiceImpl.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO performance_summary (journey_id, punctuality_status, total_delay_minutes, avg_speed, "
+                    + "total_alerts, efficiency_score) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                    + "punctuality_status = VALUES(punctuality_status), total_delay_minutes = VALUES(total_delay_minutes), "
+                    + "avg_speed = VALUES(avg_speed), total_alerts = VALUES(total_alerts), "
+                    + "efficiency_score = VALUES(efficiency_score)";
+
+    // State of the job running in this process
+    private static final class ActiveJob {
+        private final long id;
+        private volatile boolean stopping;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private final LongAdder ranges = new LongAdder();
+        private final LongAdder journeys = new LongAdder();
+        private final LongAdder points = new LongAdder();
+
+        private ActiveJob(long id) {
+            this.id = id;
+        }
+    }
+
+    private record JourneyRow(long id, Integer authorizedSpeed) {
+    }
+
+    private final RescoreJobRepository rescoreJobRepository;
+    private final TrackService trackService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int rangeSize;
+    private final int parallelism;
+    private final int delayToleranceMinutes;
+
+    private volatile ActiveJob active;
+    private volatile ActiveJob last;
+
+    public PerformanceRescoreServiceImpl(RescoreJobRepository rescoreJobRepository,
+                                         TrackService trackService,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${app.performance.rescore.range-size:500}") int rangeSize,
+                                         @Value("${app.performance.rescore.parallelism:4}") int parallelism,
+                                         @Value("${app.performance.delay-tolerance-minutes:5}") int delayToleranceMinutes) {
+        this.rescoreJobRepository = rescoreJobRepository;
+        this.trackService = trackService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rangeSize = rangeSize;
+        this.parallelism = parallelism;
+        this.delayToleranceMinutes = delayToleranceMinutes;
+    }
+
+    @Override
+    public synchronized RescoreJobResponse start(Long fromId, Long toId) {
+        ensureIdle();
+        if (fromId == null) fromId = completedJourneyId("MIN");
+        if (toId == null) toId = completedJourneyId("MAX");
+        if (fromId == null || toId == null) {
+            throw new BadRequestException("No completed journeys to rescore");
+        }
+        if (fromId > toId) {
+            throw new BadRequestException("fromId must not be greater than toId");
+        }
+        RescoreJob job = new RescoreJob();
+        job.setStatus(RescoreJobStatus.RUNNING);
+        job.setFromId(fromId);
+        job.setToId(toId);
+        job.setRangeSize(rangeSize);
+        job.setRangesTotal((int) ((toId - fromId) / rangeSize + 1));
+        job.setRangesDone(0);
+        job.setJourneysScored(0L);
+        job.setStartedAt(LocalDateTime.now(ZoneOffset.UTC));
+        job = rescoreJobRepository.save(job);
+        launch(job, Set.of());
+        return RescoreJobResponse.from(job, true);
+    }
+
+    @Override
+    public synchronized RescoreJobResponse resume(Long jobId) {
+        ensureIdle();
+        RescoreJob job = findJob(jobId);
+        if (job.getStatus() == RescoreJobStatus.COMPLETED) {
+            throw new BadRequestException("Rescore job " + jobId + " has already completed");
+        }
+        Set<Long> done = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT range_start FROM rescore_job_ranges WHERE job_id = ?", Long.class, jobId));
+        job.setStatus(RescoreJobStatus.RUNNING);
+        job.setFinishedAt(null);
+        job.setLastError(null);
+        job = rescoreJobRepository.save(job);
+        launch(job, done);
+        return RescoreJobResponse.from(job, true);
+    }
+
+    @Override
+    public RescoreJobResponse cancel(Long jobId) {
+        ActiveJob running = active;
+        if (running == null || running.id != jobId) {
+            throw new BadRequestException("Rescore job " + jobId + " is not running");
+        }
+        running.stopping = true;
+        return getJob(jobId);
+    }
+
+    @Override
+    public RescoreJobResponse getJob(Long jobId) {
+        ActiveJob running = active;
+        return RescoreJobResponse.from(findJob(jobId), running != null && running.id == jobId);
+    }
+
+    private void ensureIdle() {
+        ActiveJob running = active;
+        if (running != null) {
+            throw new BadRequestException("Rescore job " + running.id + " is still running");
+        }
+    }
+
+    private Long completedJourneyId(String aggregate) {
+        return jdbcTemplate.queryForObject("SELECT " + aggregate + "(id) FROM journeys WHERE status = ?",
+                Long.class, JourneyStatus.COMPLETED.name());
+    }
+
+    private RescoreJob findJob(Long jobId) {
+        return rescoreJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rescore job not found with id: " + jobId));
+    }
+
+    private void launch(RescoreJob job, Set<Long> doneRanges) {
+        ActiveJob running = new ActiveJob(job.getId());
+        active = running;
+        last = running;
+        long fromId = job.getFromId();
+        long toId = job.getToId();
+        int size = job.getRangeSize();
+        Thread.ofPlatform().daemon().name("rescore-job-" + job.getId())
+                .start(() -> run(running, fromId, toId, size, doneRanges));
+    }
+
+    private void run(ActiveJob job, long fromId, long toId, int size, Set<Long> doneRanges) {
+        Semaphore permits = new Semaphore(parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        Throwable failure = null;
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long start = fromId; start <= toId && !job.stopping; start += size) {
+                if (doneRanges.contains(start)) continue;
+                permits.acquire();
+                long rangeStart = start;
+                long rangeEnd = Math.min(toId, start + size - 1);
+                futures.add(pool.submit(() -> {
+                    try {
+                        if (!job.stopping) rescoreRange(job, rangeStart, rangeEnd);
+                    } catch (RuntimeException e) {
+                        job.stopping = true; // a failed range stops the job; resume retries it
+                        throw e;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) failure = e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        RescoreJobStatus status = failure != null ? RescoreJobStatus.FAILED
+                : job.stopping ? RescoreJobStatus.CANCELLED : RescoreJobStatus.COMPLETED;
+        String error = failure != null ? String.valueOf(failure.getMessage()) : null;
+        if (error != null && error.length() > 1000) error = error.substring(0, 1000);
+        try {
+            jdbcTemplate.update("UPDATE rescore_jobs SET status = ?, finished_at = ?, last_error = ? WHERE id = ?",
+                    status.name(), LocalDateTime.now(ZoneOffset.UTC), error, job.id);
+        } finally {
+            job.endNanos = System.nanoTime();
+            active = null;
+        }
+        double seconds = (job.endNanos - job.startNanos) / 1e9;
+        if (failure != null) {
+            log.error("Rescore job {} failed after {} ranges", job.id, job.ranges.sum(), failure);
+        } else {
+            log.info("Rescore job {} {}: {} journeys in {} ranges, {} s", job.id, status,
+                    job.journeys.sum(), job.ranges.sum(), String.format("%.1f", seconds));
+        }
+    }
+
+    private void rescoreRange(ActiveJob job, long rangeStart, long rangeEnd) {
+        List<JourneyRow> journeys = jdbcTemplate.query(
+                "SELECT id, authorized_speed FROM journeys WHERE id BETWEEN ? AND ? AND status = ?",
+                (rs, i) -> new JourneyRow(rs.getLong(1), (Integer) rs.getObject(2)),
+                rangeStart, rangeEnd, JourneyStatus.COMPLETED.name());
+        Map<Long, Integer> alertCounts = new HashMap<>();
+        if (!journeys.isEmpty()) {
+            jdbcTemplate.query(
+                    "SELECT journey_id, COUNT(*) FROM triggered_alert WHERE journey_id BETWEEN ? AND ? GROUP BY journey_id",
+                    rs -> { alertCounts.put(rs.getLong(1), rs.getInt(2)); }, rangeStart, rangeEnd);
+        }
+
+        List<Object[]> rows = new ArrayList<>(journeys.size());
+        long points = 0;
+        for (JourneyRow journey : journeys) {
+            PerformanceAccumulator acc = new PerformanceAccumulator(journey.authorizedSpeed());
+            trackService.forEachPoint(journey.id(), null, null,
+                    (ts, lat, lon, speed, heading) -> acc.addFix(ts, FixEncoding.fromTenths(speed)));
+            acc.addAlerts(alertCounts.getOrDefault(journey.id(), 0));
+            PerformanceAccumulator.Snapshot snapshot = acc.snapshot();
+            points += snapshot.fixes();
+            PerformanceSummary s = PerformanceScoring.applyTo(new PerformanceSummary(), snapshot, delayToleranceMinutes);
+            rows.add(new Object[]{journey.id(), s.getPunctualityStatus().name(), s.getTotalDelayMinutes(),
+                    s.getAvgSpeed(), s.getTotalAlerts(), s.getEfficiencyScore()});
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (!rows.isEmpty()) jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            jdbcTemplate.update("INSERT INTO rescore_job_ranges (job_id, range_start, journeys_scored, completed_at) "
+                    + "VALUES (?, ?, ?, ?)", job.id, rangeStart, rows.size(), LocalDateTime.now(ZoneOffset.UTC));
+            jdbcTemplate.update("UPDATE rescore_jobs SET ranges_done = ranges_done + 1, "
+                    + "journeys_scored = journeys_scored + ? WHERE id = ?", rows.size(), job.id);
+        });
+        job.ranges.increment();
+        job.journeys.add(rows.size());
+        job.points.add(points);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        ActiveJob job = last;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("parallelism", parallelism);
+        stats.put("rangeSize", rangeSize);
+        stats.put("activeJobId", active != null ? active.id : null);
+        if (job != null) {
+            double seconds = ((job.endNanos != 0 ? job.endNanos : System.nanoTime()) - job.startNanos) / 1e9;
+            stats.put("lastJobId", job.id);
+            stats.put("rangesDone", job.ranges.sum());
+            stats.put("journeysScored", job.journeys.sum());
+            stats.put("pointsReplayed", job.points.sum());
+            stats.put("journeysPerSecond", seconds == 0 ? 0.0 : job.journeys.sum() / seconds);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Ranges in flight commit or roll back as a unit, so the job can be resumed from its checkpoints
+        ActiveJob running = active;
+        if (running != null) running.stopping = true;
+    }
+}
@@ -0,0 +1,158 @@
+package train.local.fogpass.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.dto.response.PerformanceSummaryResponse;
+import train.local.fogpass.entity.Journey;
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.model.PerformanceAccumulator;
+import train.local.fogpass.repository.JourneyRepository;
+import train.local.fogpass.repository.PerformanceSummaryRepository;
+import train.local.fogpass.service.PerformanceSummaryService;
+import train.local.fogpass.service.TrackService;
+import train.local.fogpass.service.WriteBehindService;
+import train.local.fogpass.util.FixEncoding;
+import train.local.fogpass.util.PerformanceScoring;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a {@link PerformanceAccumulator} per active journey, fed by the GPS pipeline, so the live summary
+ * and the one persisted at journey end are both O(1). A journey first seen on this instance mid-way (e.g.
+ * after a restart) is seeded, once, by replaying what was stored before its first live fix; one ending
+ * without any live fix here, or with a late fix its accumulator could not merge, is rebuilt from its
+ * whole track.
+ */
+@Service
+public class PerformanceSummaryServiceImpl implements PerformanceSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PerformanceSummaryServiceImpl.class);
+
+    private final JourneyRepository journeyRepository;
+    private final PerformanceSummaryRepository performanceSummaryRepository;
+    private final TrackService trackService;
+    private final WriteBehindService writeBehindService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int delayToleranceMinutes;
+
+    private final ConcurrentHashMap<Long, PerformanceAccumulator> accumulators = new ConcurrentHashMap<>();
+
+    private final LongAdder summariesPersisted = new LongAdder();
+    private final LongAdder rebuiltFromTrack = new LongAdder();
+
+    public PerformanceSummaryServiceImpl(JourneyRepository journeyRepository,
+                                         PerformanceSummaryRepository performanceSummaryRepository,
+                                         TrackService trackService,
+                                         WriteBehindService writeBehindService,
+                                         JdbcTemplate jdbcTemplate,
+                                         @Value("${app.performance.delay-tolerance-minutes:5}") int delayToleranceMinutes) {
+        this.journeyRepository = journeyRepository;
+        this.performanceSummaryRepository = performanceSummaryRepository;
+        this.trackService = trackService;
+        this.writeBehindService = writeBehindService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.delayToleranceMinutes = delayToleranceMinutes;
+    }
+
+    @Override
+    public void onFix(GpsFix fix, int alertCount) {
+        PerformanceAccumulator acc = accumulators.get(fix.getJourneyId());
+        if (acc == null) {
+            acc = start(fix);
+        }
+        acc.addFix(fix.getTimestamp(), fix.getSpeed());
+        if (alertCount > 0) acc.addAlerts(alertCount);
+    }
+
+    @Override
+    public PerformanceSummaryResponse getSummary(Long journeyId) {
+        PerformanceAccumulator acc = accumulators.get(journeyId);
+        if (acc != null) {
+            PerformanceSummary live = PerformanceScoring.applyTo(new PerformanceSummary(), acc.snapshot(), delayToleranceMinutes);
+            return PerformanceSummaryResponse.from(journeyId, live, true);
+        }
+        PerformanceSummary stored = performanceSummaryRepository.findById(journeyId)
+                .orElseThrow(() -> new ResourceNotFoundException("No performance summary for journey: " + journeyId));
+        return PerformanceSummaryResponse.from(journeyId, stored, false);
+    }
+
+    @Override
+    public PerformanceSummary complete(Journey journey) {
+        PerformanceAccumulator acc = accumulators.get(journey.getId());
+        if (acc == null || !acc.isExact()) {
+            // No live aggregates here, or a late fix could not be merged into them
+            acc = rebuild(journey);
+        }
+        PerformanceSummary summary = performanceSummaryRepository.findById(journey.getId()).orElseGet(() -> {
+            PerformanceSummary s = new PerformanceSummary();
+            s.setJourney(journey);
+            return s;
+        });
+        PerformanceScoring.applyTo(summary, acc.snapshot(), delayToleranceMinutes);
+        summariesPersisted.increment();
+        return performanceSummaryRepository.save(summary);
+    }
+
+    // First fix of the journey on this instance. The queries run outside the map so no bin lock is held
+    // across them; a journey is fed by one GPS worker at a time, so nothing else races the put.
+    private PerformanceAccumulator start(GpsFix fix) {
+        long journeyId = fix.getJourneyId();
+        PerformanceAccumulator acc = new PerformanceAccumulator(journeyRepository.findAuthorizedSpeedById(journeyId).orElse(null));
+        if (replay(journeyId, acc, fix.getTimestamp()) > 0) {
+            rebuiltFromTrack.increment();
+            log.info("Resumed performance aggregates of journey {} from its stored track", journeyId);
+        }
+        PerformanceAccumulator existing = accumulators.putIfAbsent(journeyId, acc);
+        return existing != null ? existing : acc;
+    }
+
+    // Fallback when the journey ends without exact live aggregates: one pass over the whole stored track
+    private PerformanceAccumulator rebuild(Journey journey) {
+        writeBehindService.flush(); // make buffered points and alerts visible first
+        PerformanceAccumulator acc = new PerformanceAccumulator(journey.getAuthorizedSpeed());
+        replay(journey.getId(), acc, null);
+        rebuiltFromTrack.increment();
+        log.info("Rebuilt performance aggregates of journey {} from its track", journey.getId());
+        return acc;
+    }
+
+    // Folds the stored points and alerts before `before` (epoch millis; null for all) into acc; returns the point count
+    private long replay(long journeyId, PerformanceAccumulator acc, Long before) {
+        trackService.forEachPoint(journeyId, null, before,
+                (ts, lat, lon, speed, heading) -> acc.addFix(ts, FixEncoding.fromTenths(speed)));
+        Integer alerts = before == null
+                ? jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM triggered_alert WHERE journey_id = ?", Integer.class, journeyId)
+                : jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM triggered_alert WHERE journey_id = ? AND triggered_at < ?", Integer.class,
+                        journeyId, LocalDateTime.ofInstant(Instant.ofEpochMilli(before), ZoneOffset.UTC));
+        if (alerts != null && alerts > 0) acc.addAlerts(alerts);
+        return acc.snapshot().fixes();
+    }
+
+    @Override
+    public void endJourney(Long journeyId) {
+        accumulators.remove(journeyId);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeJourneys", accumulators.size());
+        stats.put("summariesPersisted", summariesPersisted.sum());
+        stats.put("rebuiltFromTrack", rebuiltFromTrack.sum());
+        stats.put("delayToleranceMinutes", delayToleranceMinutes);
+        return stats;
+    }
+}
@@ -0,0 +1,236 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import train.local.fogpass.entity.Landmark;
+import train.local.fogpass.entity.LandmarkAlertConfig;
+import train.local.fogpass.entity.Route;
+import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.model.RoutePackage;
+import train.local.fogpass.repository.LandmarkAlertConfigRepository;
+import train.local.fogpass.repository.LandmarkRepository;
+import train.local.fogpass.repository.RouteRepository;
+import train.local.fogpass.service.RoutePackageService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds the offline route package (route header, landmarks in sequence order, landmarkType → audio
+ * mapping and the optimal running profile) once per route change, gzips it at maximum compression and
+ * keeps the bytes in memory. Requests only copy those bytes out, or answer 304 on a matching ETag.
+ * Landmark, route and alert-config writes invalidate after commit. Builds query outside the cache map;
+ * a build that overlapped an invalidation is served once but not cached.
+ */
+@Service
+public class RoutePackageServiceImpl implements RoutePackageService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutePackageServiceImpl.class);
+
+    static final int FORMAT_VERSION = 1;
+
+    private final RouteRepository routeRepository;
+    private final LandmarkRepository landmarkRepository;
+    private final LandmarkAlertConfigRepository alertConfigRepository;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentHashMap<Long, RoutePackage> packages = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong(); // bumped before every removal
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    public RoutePackageServiceImpl(RouteRepository routeRepository,
+                                   LandmarkRepository landmarkRepository,
+                                   LandmarkAlertConfigRepository alertConfigRepository,
+                                   ObjectMapper objectMapper) {
+        this.routeRepository = routeRepository;
+        this.landmarkRepository = landmarkRepository;
+        this.alertConfigRepository = alertConfigRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public RoutePackage getPackage(Long routeId) {
+        served.increment();
+        RoutePackage cached = packages.get(routeId);
+        if (cached != null) return cached;
+
+        long seen = invalidations.get();
+        RoutePackage pkg = build(routeId);
+        RoutePackage existing = packages.putIfAbsent(routeId, pkg);
+        if (existing != null) return existing;
+        if (invalidations.get() != seen) {
+            // Invalidated while building: the rows read may predate the change
+            packages.remove(routeId, pkg);
+        }
+        return pkg;
+    }
+
+    @Override
+    public void onRouteChanged(Long routeId) {
+        if (routeId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Invalidating before commit would let a concurrent request rebuild from the old rows
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(routeId);
+                }
+            });
+        } else {
+            invalidate(routeId);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(null);
+                }
+            });
+        } else {
+            invalidate(null);
+        }
+    }
+
+    // null: every route
+    private void invalidate(Long routeId) {
+        invalidations.incrementAndGet();
+        if (routeId == null) {
+            packages.clear();
+        } else {
+            packages.remove(routeId);
+        }
+    }
+
+    private RoutePackage build(Long routeId) {
+        long start = System.nanoTime();
+        Route route = routeRepository.findById(routeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Route not found with id: " + routeId));
+
+        byte[] json;
+        try {
+            json = writePackageJson(route);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build route package for route " + routeId, e);
+        }
+        String version = sha256Prefix(json);
+        RoutePackage pkg = new RoutePackage(routeId, version, gzip(json), json.length, System.currentTimeMillis());
+
+        long elapsed = System.nanoTime() - start;
+        builds.increment();
+        buildNanos.add(elapsed);
+        log.info("Built route package {} v{}: {} bytes, {} gzipped in {} ms",
+                routeId, version, json.length, pkg.getGzipped().length, elapsed / 1_000_000);
+        return pkg;
+    }
+
+    private byte[] writePackageJson(Route route) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try (JsonGenerator g = objectMapper.getFactory().createGenerator(out)) {
+            g.writeStartObject();
+            g.writeNumberField("formatVersion", FORMAT_VERSION);
+            g.writeNumberField("routeId", route.getId());
+            g.writeStringField("routeCode", route.getRouteCode());
+            g.writeStringField("name", route.getName());
+            g.writeStringField("direction", route.getDirection());
+
+            // Stored as a JSON column; embedded as JSON rather than as an escaped string
+            g.writeFieldName("optimalProfile");
+            if (route.getOptimalProfileData() != null && !route.getOptimalProfileData().isBlank()) {
+                g.writeTree(objectMapper.readTree(route.getOptimalProfileData()));
+            } else {
+                g.writeNull();
+            }
+
+            g.writeObjectFieldStart("alertAudio");
+            for (LandmarkAlertConfig config : alertConfigRepository.findAll()) {
+                g.writeStringField(config.getLandmarkType(), config.getAudioFileName());
+            }
+            g.writeEndObject();
+
+            g.writeArrayFieldStart("landmarks");
+            for (Landmark l : landmarkRepository.findByRoute_IdOrderBySequenceOrderAsc(route.getId())) {
+                g.writeStartObject();
+                g.writeNumberField("id", l.getId());
+                g.writeObjectField("sequenceOrder", l.getSequenceOrder());
+                g.writeStringField("locationCode", l.getLocationCode());
+                g.writeStringField("landmarkType", l.getLandmarkType());
+                g.writeStringField("name", l.getName());
+                g.writeObjectField("latitude", l.getLatitude());
+                g.writeObjectField("longitude", l.getLongitude());
+                g.writeObjectField("prewarningDistance", l.getPrewarningDistance());
+                g.writeStringField("direction", l.getDirection());
+                g.writeEndObject();
+            }
+            g.writeEndArray();
+            g.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        // Built once, served many times over slow links: worth the slowest, smallest setting
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256Prefix(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long buildCount = builds.sum();
+        long rawBytes = 0;
+        long gzipBytes = 0;
+        for (RoutePackage pkg : packages.values()) {
+            rawBytes += pkg.getRawSize();
+            gzipBytes += pkg.getGzipped().length;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedPackages", packages.size());
+        stats.put("requests", served.sum());
+        stats.put("builds", buildCount);
+        stats.put("avgBuildMillis", buildCount == 0 ? 0.0 : buildNanos.sum() / 1e6 / buildCount);
+        stats.put("cachedRawBytes", rawBytes);
+        stats.put("cachedGzipBytes", gzipBytes);
+        stats.put("compressionRatio", gzipBytes == 0 ? 0.0 : (double) rawBytes / gzipBytes);
+        return stats;
+    }
+}
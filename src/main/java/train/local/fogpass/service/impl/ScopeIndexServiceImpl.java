@@ -0,0 +1,93 @@
+package train.local.fogpass.service.impl;
+
+import org.springframework.stereotype.Service;
+import train.local.fogpass.model.HierarchySnapshot;
+import train.local.fogpass.model.ScopeIndex;
+import train.local.fogpass.security.RoleConstants;
+import train.local.fogpass.security.UserPrincipal;
+import train.local.fogpass.service.HierarchyService;
+import train.local.fogpass.service.ScopeIndexService;
+import train.local.fogpass.util.LongHashSet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds and caches {@link ScopeIndex}es. Containment is resolved from the child indexes of the current
+ * {@link HierarchySnapshot}; a cached index is reused while both the user's token version and the snapshot
+ * generation are unchanged.
+ */
+@Service
+public class ScopeIndexServiceImpl implements ScopeIndexService {
+
+    private record CachedIndex(int tokenVersion, long generation, ScopeIndex index) {
+    }
+
+    private final HierarchyService hierarchyService;
+
+    private final ConcurrentHashMap<Long, CachedIndex> indexes = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    public ScopeIndexServiceImpl(HierarchyService hierarchyService) {
+        this.hierarchyService = hierarchyService;
+    }
+
+    @Override
+    public ScopeIndex forPrincipal(UserPrincipal principal) {
+        HierarchySnapshot hierarchy = hierarchyService.getSnapshot();
+        CachedIndex cached = indexes.get(principal.getId());
+        if (cached != null && cached.tokenVersion() == principal.getTokenVersion()
+                && cached.generation() == hierarchy.getGeneration()) {
+            hits.increment();
+            return cached.index();
+        }
+        ScopeIndex index = build(principal, hierarchy);
+        indexes.put(principal.getId(), new CachedIndex(principal.getTokenVersion(), hierarchy.getGeneration(), index));
+        builds.increment();
+        return index;
+    }
+
+    private static ScopeIndex build(UserPrincipal principal, HierarchySnapshot h) {
+        LongHashSet zones = new LongHashSet();
+        LongHashSet divisions = new LongHashSet();
+        LongHashSet sections = new LongHashSet();
+        for (UserPrincipal.ScopeView scope : principal.getAccessScopes()) {
+            if (RoleConstants.SUPER_ADMIN.equals(scope.getRoleName())) {
+                return ScopeIndex.unrestricted();
+            }
+            if (scope.getZoneId() != null && scope.getDivisionId() == null) {
+                zones.add(scope.getZoneId());
+                for (long d : h.divisionsOf(scope.getZoneId()).toArray()) {
+                    divisions.add(d);
+                    addAll(sections, h.sectionsOf(d));
+                }
+            } else if (scope.getDivisionId() != null && scope.getSectionId() == null) {
+                divisions.add(scope.getDivisionId());
+                addAll(sections, h.sectionsOf(scope.getDivisionId()));
+            } else if (scope.getSectionId() != null) {
+                sections.add(scope.getSectionId());
+            }
+        }
+        return new ScopeIndex(false, zones, divisions, sections);
+    }
+
+    private static void addAll(LongHashSet target, LongHashSet source) {
+        for (long v : source.toArray()) target.add(v);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long h = hits.sum();
+        long b = builds.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedIndexes", indexes.size());
+        stats.put("hits", h);
+        stats.put("builds", b);
+        stats.put("hitRate", h + b == 0 ? 0.0 : (double) h / (h + b));
+        return stats;
+    }
+}
@@ -1,8 +1,12 @@
 package train.local.fogpass.service.impl;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import train.local.fogpass.dto.response.SectionResponse;
 import train.local.fogpass.entity.Section;
 import train.local.fogpass.repository.SectionRepository;
+import train.local.fogpass.repository.HierarchyBulkInsertRepository;
+import train.local.fogpass.service.HierarchyService;
 import train.local.fogpass.service.SectionService;
 
 import java.util.List;
@@ -11,33 +15,45 @@ import java.util.List;
 public class SectionServiceImpl implements SectionService {
 
     private final SectionRepository sectionRepository;
+    private final HierarchyBulkInsertRepository bulkInsertRepository;
+    private final HierarchyService hierarchyService;
 
-    public SectionServiceImpl(SectionRepository sectionRepository) {
+    public SectionServiceImpl(SectionRepository sectionRepository,
+                              HierarchyBulkInsertRepository bulkInsertRepository, HierarchyService hierarchyService) {
         this.sectionRepository = sectionRepository;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.hierarchyService = hierarchyService;
     }
 
     @Override
-    public List<Section> getAllSections() {
-        return sectionRepository.findAll();
+    public List<SectionResponse> getAllSections() {
+        return sectionRepository.findAllResponses();
     }
 
     @Override
-    public List<Section> getSectionsByDivision(Long divisionId) {
-        return sectionRepository.findByDivision_Id(divisionId);
+    public List<SectionResponse> getSectionsByDivision(Long divisionId) {
+        return sectionRepository.findResponsesByDivisionId(divisionId);
     }
 
     @Override
     public Section saveSection(Section section) {
-        return sectionRepository.save(section);
+        Section saved = sectionRepository.save(section);
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 
     @Override
+    @Transactional
     public List<Section> saveAllSections(List<Section> sections) {
-        return sectionRepository.saveAll(sections);
+        // Always inserts: batched JDBC, since saveAll is one round trip per row with IDENTITY ids
+        List<Section> saved = bulkInsertRepository.insertSections(sections);
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 
     @Override
     public void deleteSection(Long id) {
         sectionRepository.deleteById(id);
+        hierarchyService.onHierarchyChanged();
     }
 }
\ No newline at end of file
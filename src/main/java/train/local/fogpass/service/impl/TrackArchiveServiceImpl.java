@@ -0,0 +1,247 @@
+package train.local.fogpass.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import train.local.fogpass.entity.enums.JourneyStatus;
+import train.local.fogpass.model.TrackPointSink;
+import train.local.fogpass.service.TrackArchiveService;
+import train.local.fogpass.util.TrackCodec;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves the tracks of completed journeys from track_points into one {@link TrackCodec} blob per journey.
+ *
+ * A background sweep picks COMPLETED journeys that ended more than {@code min-age-minutes} ago (so the
+ * write-behind buffer has drained), encodes their points in time order, stores the blob and deletes the
+ * rows in the same transaction. Replay decodes the blob; any point that arrives after archiving stays in
+ * track_points, where the caller appends points newer than the archive. A later sweep merges such
+ * leftovers (including store-and-forward points older than the archive's end) into a re-encoded blob.
+ */
+@Service
+public class TrackArchiveServiceImpl implements TrackArchiveService, ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackArchiveServiceImpl.class);
+
+    // Fixed-width size of one track_points row's data, the baseline for the compression ratio
+    private static final int RAW_POINT_BYTES = 28;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long intervalMinutes;
+    private final long minAgeMinutes;
+    private final int journeysPerSweep;
+
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder journeysArchived = new LongAdder();
+    private final LongAdder journeysMerged = new LongAdder();
+    private final LongAdder pointsArchived = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder encodedBytes = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder pointsDecoded = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+
+    public TrackArchiveServiceImpl(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.track-archive.enabled:true}") boolean enabled,
+                                   @Value("${app.track-archive.interval-minutes:60}") long intervalMinutes,
+                                   @Value("${app.track-archive.min-age-minutes:30}") long minAgeMinutes,
+                                   @Value("${app.track-archive.journeys-per-sweep:200}") int journeysPerSweep) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.intervalMinutes = intervalMinutes;
+        this.minAgeMinutes = minAgeMinutes;
+        this.journeysPerSweep = journeysPerSweep;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "track-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                archiveCompletedJourneys();
+            } catch (RuntimeException e) {
+                log.error("Track archive sweep failed", e);
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public int archiveCompletedJourneys() {
+        List<Long> due = jdbcTemplate.queryForList(
+                "SELECT j.id FROM journeys j WHERE j.status = ? AND j.end_time < ? "
+                        + "AND EXISTS (SELECT 1 FROM track_points t WHERE t.journey_id = j.id) LIMIT ?",
+                Long.class, JourneyStatus.COMPLETED.name(),
+                LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minAgeMinutes), journeysPerSweep);
+        int archived = 0;
+        for (Long journeyId : due) {
+            try {
+                if (archiveJourney(journeyId)) archived++;
+            } catch (RuntimeException e) {
+                log.warn("Failed to archive track of journey {}", journeyId, e);
+            }
+        }
+        if (archived > 0) log.info("Archived tracks of {} completed journeys", archived);
+        return archived;
+    }
+
+    @Override
+    public boolean archiveJourney(long journeyId) {
+        Boolean done = transactionTemplate.execute(status -> {
+            // Locks an existing archive, so two merges of the same journey cannot both rewrite it
+            List<byte[]> existing = jdbcTemplate.query(
+                    "SELECT encoded FROM track_archives WHERE journey_id = ? FOR UPDATE",
+                    (rs, i) -> rs.getBytes(1), journeyId);
+            PointBuffer archived = new PointBuffer();
+            if (!existing.isEmpty()) TrackCodec.decode(existing.get(0), archived);
+
+            TrackCodec.Encoder encoder = new TrackCodec.Encoder();
+            int[] next = {0};          // next archived point to merge
+            long[] rows = {0, Long.MIN_VALUE};  // rows read, last row ts
+            // Locks the journey's rows, so a late write-behind insert waits instead of slipping between read and delete
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT ts, lat_e7, lon_e7, speed_tenths, heading_tenths FROM track_points "
+                                + "WHERE journey_id = ? ORDER BY ts FOR UPDATE",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(Integer.MIN_VALUE);
+                ps.setLong(1, journeyId);
+                return ps;
+            }, (ResultSet rs) -> {
+                long ts = rs.getLong(1);
+                rows[0]++;
+                rows[1] = ts;
+                while (next[0] < archived.count && archived.ts[next[0]] < ts) archived.copyTo(next[0]++, encoder);
+                // A resent point already in the archive: keep the archived copy
+                if (next[0] < archived.count && archived.ts[next[0]] == ts) return;
+                encoder.add(ts, rs.getInt(2), rs.getInt(3), rs.getShort(4), rs.getShort(5));
+            });
+            if (rows[0] == 0) return false;
+            while (next[0] < archived.count) archived.copyTo(next[0]++, encoder);
+
+            byte[] encoded = encoder.toByteArray();
+            long raw = (long) encoder.getCount() * RAW_POINT_BYTES;
+            jdbcTemplate.update(
+                    "INSERT INTO track_archives (journey_id, point_count, first_ts, last_ts, raw_bytes, encoded, "
+                            + "format_version, archived_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                            + "ON DUPLICATE KEY UPDATE point_count = VALUES(point_count), first_ts = VALUES(first_ts), "
+                            + "last_ts = VALUES(last_ts), raw_bytes = VALUES(raw_bytes), encoded = VALUES(encoded), "
+                            + "format_version = VALUES(format_version), archived_at = VALUES(archived_at)",
+                    journeyId, encoder.getCount(), encoder.getFirstTs(), encoder.getLastTs(), raw, encoded,
+                    TrackCodec.VERSION, LocalDateTime.now(ZoneOffset.UTC));
+            jdbcTemplate.update("DELETE FROM track_points WHERE journey_id = ? AND ts <= ?", journeyId, rows[1]);
+
+            if (existing.isEmpty()) journeysArchived.increment();
+            else journeysMerged.increment();
+            pointsArchived.add(encoder.getCount() - archived.count);
+            rawBytes.add((long) (encoder.getCount() - archived.count) * RAW_POINT_BYTES);
+            encodedBytes.add(encoded.length - (existing.isEmpty() ? 0 : existing.get(0).length));
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    @Override
+    public long replayArchived(long journeyId, Long from, Long to, TrackPointSink sink) {
+        Object[] archive;
+        try {
+            archive = jdbcTemplate.queryForObject(
+                    "SELECT encoded, last_ts FROM track_archives WHERE journey_id = ?",
+                    (rs, i) -> new Object[]{rs.getBytes(1), rs.getLong(2)}, journeyId);
+        } catch (EmptyResultDataAccessException e) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        long lower = from != null ? from : Long.MIN_VALUE;
+        long upper = to != null ? to : Long.MAX_VALUE;
+        int n = TrackCodec.decode((byte[]) archive[0], (ts, lat, lon, speed, heading) -> {
+            if (ts >= lower && ts < upper) sink.accept(ts, lat, lon, speed, heading);
+        });
+        decodeNanos.add(System.nanoTime() - start);
+        pointsDecoded.add(n);
+        replays.increment();
+        return (Long) archive[1];
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long encoded = encodedBytes.sum();
+        long decoded = pointsDecoded.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("journeysArchived", journeysArchived.sum());
+        stats.put("journeysMerged", journeysMerged.sum());
+        stats.put("pointsArchived", pointsArchived.sum());
+        stats.put("rawBytes", rawBytes.sum());
+        stats.put("encodedBytes", encoded);
+        stats.put("compressionRatio", encoded == 0 ? 0.0 : (double) rawBytes.sum() / encoded);
+        stats.put("replays", replays.sum());
+        stats.put("avgDecodeNanosPerPoint", decoded == 0 ? 0.0 : (double) decodeNanos.sum() / decoded);
+        return stats;
+    }
+
+    // A decoded archive, held while late points are merged into it
+    private static final class PointBuffer implements TrackPointSink {
+        private long[] ts = new long[1024];
+        private int[] lat = new int[1024];
+        private int[] lon = new int[1024];
+        private short[] speed = new short[1024];
+        private short[] heading = new short[1024];
+        private int count;
+
+        @Override
+        public void accept(long t, int latE7, int lonE7, short speedTenths, short headingTenths) {
+            if (count == ts.length) {
+                int size = count * 2;
+                ts = Arrays.copyOf(ts, size);
+                lat = Arrays.copyOf(lat, size);
+                lon = Arrays.copyOf(lon, size);
+                speed = Arrays.copyOf(speed, size);
+                heading = Arrays.copyOf(heading, size);
+            }
+            ts[count] = t;
+            lat[count] = latE7;
+            lon[count] = lonE7;
+            speed[count] = speedTenths;
+            heading[count] = headingTenths;
+            count++;
+        }
+
+        void copyTo(int i, TrackCodec.Encoder encoder) {
+            encoder.add(ts[i], lat[i], lon[i], speed[i], heading[i]);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,98 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import train.local.fogpass.model.TrackPointSink;
+import train.local.fogpass.service.TrackArchiveService;
+import train.local.fogpass.service.TrackService;
+import train.local.fogpass.util.FixEncoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Track replay from track_points. The (journey_id, ts) primary key is clustered, so a journey's points
+ * are read with one ordered range scan and streamed to the client without building objects per point.
+ * Completed journeys whose rows have been archived are decoded from their {@link train.local.fogpass.util.TrackCodec}
+ * blob instead, so callers see the same track either way.
+ */
+@Service
+public class TrackServiceImpl implements TrackService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TrackArchiveService trackArchiveService;
+
+    public TrackServiceImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, TrackArchiveService trackArchiveService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.trackArchiveService = trackArchiveService;
+    }
+
+    @Override
+    public long writeTrackJson(long journeyId, Long from, Long to, OutputStream out) throws IOException {
+        long[] count = {0};
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("journeyId", journeyId);
+            json.writeArrayFieldStart("points");
+            forEachPoint(journeyId, from, to, (ts, lat, lon, speed, heading) -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("ts", ts);
+                    json.writeNumberField("lat", FixEncoding.fromE7(lat));
+                    json.writeNumberField("lon", FixEncoding.fromE7(lon));
+                    json.writeNumberField("speed", FixEncoding.fromTenths(speed));
+                    json.writeNumberField("heading", FixEncoding.fromTenths(heading));
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+            json.writeEndArray();
+            json.writeNumberField("count", count[0]);
+            json.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    // Archived points first, then any rows newer than the archive (or all rows if there is none). Late rows
+    // older than the archive's end are skipped here until the archive sweep merges them in order
+    @Override
+    public void forEachPoint(long journeyId, Long from, Long to, TrackPointSink sink) {
+        long archivedUpTo = trackArchiveService.replayArchived(journeyId, from, to, sink);
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT ts, lat_e7, lon_e7, speed_tenths, heading_tenths FROM track_points WHERE journey_id = ?");
+        List<Object> params = new ArrayList<>(3);
+        params.add(journeyId);
+        Long lower = archivedUpTo >= 0 && (from == null || from <= archivedUpTo) ? Long.valueOf(archivedUpTo + 1) : from;
+        if (lower != null) {
+            sql.append(" AND ts >= ?");
+            params.add(lower);
+        }
+        if (to != null) {
+            sql.append(" AND ts < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY ts");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE); // Connector/J row-by-row streaming
+            for (int i = 0; i < params.size(); i++) ps.setObject(i + 1, params.get(i));
+            return ps;
+        }, (ResultSet rs) -> sink.accept(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getShort(4), rs.getShort(5)));
+    }
+}
@@ -1,28 +1,39 @@
 package train.local.fogpass.service.impl;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import train.local.fogpass.dto.request.UserCreateRequest;
 import train.local.fogpass.dto.request.UserUpdateRequest;
 import train.local.fogpass.dto.response.RoleScopeDto;
+import train.local.fogpass.dto.response.UserPageResponse;
 import train.local.fogpass.dto.response.UserResponse;
 import train.local.fogpass.entity.Role;
 import train.local.fogpass.entity.User;
 import train.local.fogpass.entity.UserAccessScope;
 import train.local.fogpass.exception.BadRequestException;
 import train.local.fogpass.exception.ResourceNotFoundException;
+import train.local.fogpass.mapping.projectionmapping;
+import train.local.fogpass.model.ScopeIndex;
 import train.local.fogpass.repository.RoleRepository;
 import train.local.fogpass.repository.UserRepository;
+import train.local.fogpass.security.CustomUserDetailsService;
 import train.local.fogpass.security.RoleConstants;
 import train.local.fogpass.security.SecurityUtil;
+import train.local.fogpass.security.TokenVersionCache;
+import train.local.fogpass.service.ScopeIndexService;
 import train.local.fogpass.security.UserPrincipal;
 import train.local.fogpass.service.UserService;
+import train.local.fogpass.util.LongHashSet;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -32,13 +43,28 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final ScopeIndexService scopeIndexService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public UserServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           TokenVersionCache tokenVersionCache,
+                           CustomUserDetailsService userDetailsService,
+                           ScopeIndexService scopeIndexService,
+                           @Value("${app.users.page-size:50}") int defaultPageSize,
+                           @Value("${app.users.max-page-size:500}") int maxPageSize) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
+        this.userDetailsService = userDetailsService;
+        this.scopeIndexService = scopeIndexService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -88,14 +114,13 @@ public class UserServiceImpl implements UserService {
         User targetUser = userRepository.findById(targetUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + targetUserId));
 
-        boolean isSuperAdmin = adminPrincipal.getAuthorities()
-                .contains(new SimpleGrantedAuthority("ROLE_" + RoleConstants.SUPER_ADMIN));
-        if (!isSuperAdmin) {
-            if (!isScopeAllowed(adminPrincipal, targetUser)) {
-                throw new AccessDeniedException("Admin is not authorized to manage this user's scope.");
-            }
+        if (!isScopeAllowed(scopeIndexService.forPrincipal(adminPrincipal), targetUser)) {
+            throw new AccessDeniedException("Admin is not authorized to manage this user's scope.");
         }
 
+        // The cached principal is keyed by the name the user had before this update
+        userDetailsService.evict(targetUser.getUsername());
+
         if (updateRequest.getUsername() != null) targetUser.setUsername(updateRequest.getUsername());
         if (updateRequest.getPassword() != null) targetUser.setPassword(passwordEncoder.encode(updateRequest.getPassword()));
         if (updateRequest.getUserId() != null) targetUser.setUserId(updateRequest.getUserId());
@@ -151,30 +176,26 @@ public class UserServiceImpl implements UserService {
             }
         }
 
+        // Tokens carry username, roles and scopes: anything that changes them revokes issued tokens
+        if (updateRequest.getUsername() != null || updateRequest.getPassword() != null
+                || updateRequest.getActive() != null || updateRequest.getRoles() != null) {
+            targetUser.setTokenVersion(targetUser.getTokenVersion() + 1);
+            tokenVersionCache.invalidate(targetUser.getId());
+        }
+
         User saved = userRepository.save(targetUser);
         return toResponse(saved);
     }
 
-    private boolean isScopeAllowed(UserPrincipal admin, User targetUser) {
-        Set<UserPrincipal.ScopeView> adminScopes = admin.getAccessScopes();
+    // A few hash lookups per target scope; SUPER_ADMIN's index is unrestricted
+    private boolean isScopeAllowed(ScopeIndex allowed, User targetUser) {
+        if (allowed.isUnrestricted()) return true;
         Set<UserAccessScope> targetUserScopes = targetUser.getAccessScopes();
-
-        if (adminScopes == null || targetUserScopes == null) return false;
-
-        return adminScopes.stream().anyMatch(adminScope ->
-                targetUserScopes.stream().anyMatch(targetScope -> {
-                    if (adminScope.getZoneId() != null && adminScope.getDivisionId() == null) {
-                        return Objects.equals(adminScope.getZoneId(), targetScope.getZoneId());
-                    }
-                    if (adminScope.getDivisionId() != null && adminScope.getSectionId() == null) {
-                        return Objects.equals(adminScope.getDivisionId(), targetScope.getDivisionId());
-                    }
-                    if (adminScope.getSectionId() != null) {
-                        return Objects.equals(adminScope.getSectionId(), targetScope.getSectionId());
-                    }
-                    return false;
-                })
-        );
+        if (targetUserScopes == null) return false;
+        for (UserAccessScope s : targetUserScopes) {
+            if (allowed.allows(s.getZoneId(), s.getDivisionId(), s.getSectionId())) return true;
+        }
+        return false;
     }
 
     @Override
@@ -188,16 +209,79 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+        UserPrincipal principal = SecurityUtil.getCurrentUserPrincipal()
+                .orElseThrow(() -> new AccessDeniedException("Unauthenticated"));
+        ScopeIndex allowed = scopeIndexService.forPrincipal(principal);
+        // An ADMIN only sees users within their scope, filtered in SQL
+        List<User> users = allowed.isUnrestricted()
+                ? userRepository.findAll()
+                : userRepository.findAllInScope(ids(allowed.getZones()), ids(allowed.getDivisions()), ids(allowed.getSections()));
+        return users.stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponse listUsers(Long afterId, Integer limit, Boolean active, String designation,
+                                      Long zoneId, Long divisionId, Long sectionId) {
+        int size = limit == null ? defaultPageSize : limit;
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        UserPrincipal principal = SecurityUtil.getCurrentUserPrincipal()
+                .orElseThrow(() -> new AccessDeniedException("Unauthenticated"));
+        ScopeIndex allowed = scopeIndexService.forPrincipal(principal);
+
+        // One extra row tells whether another page follows
+        List<projectionmapping.UserRow> rows = userRepository.findPage(
+                afterId == null ? 0L : afterId, active, designation, zoneId, divisionId, sectionId,
+                allowed.isUnrestricted(), ids(allowed.getZones()), ids(allowed.getDivisions()), ids(allowed.getSections()),
+                Limit.of(size + 1));
+        boolean more = rows.size() > size;
+        if (more) rows = rows.subList(0, size);
+        if (rows.isEmpty()) return new UserPageResponse(List.of(), null);
+
+        // Scopes of the whole page in a second query, keyed by user id
+        List<Long> userIds = rows.stream().map(projectionmapping.UserRow::getId).collect(Collectors.toList());
+        Map<Long, Set<RoleScopeDto>> scopesByUser = new HashMap<>();
+        for (projectionmapping.UserScopeRow s : userRepository.findScopesByUserIds(userIds)) {
+            scopesByUser.computeIfAbsent(s.getUserId(), k -> new HashSet<>())
+                    .add(new RoleScopeDto(s.getRoleName(), s.getZoneId(), s.getDivisionId(), s.getSectionId()));
+        }
+
+        List<UserResponse> items = new ArrayList<>(rows.size());
+        for (projectionmapping.UserRow row : rows) {
+            UserResponse dto = new UserResponse();
+            dto.setId(row.getId());
+            dto.setUsername(row.getUsername());
+            dto.setUserId(row.getUserId());
+            dto.setLocoPilotId(row.getLocoPilotId());
+            dto.setDateOfBirth(row.getDateOfBirth());
+            dto.setDesignation(row.getDesignation());
+            dto.setDepartment(row.getDepartment());
+            dto.setActive(row.isActive());
+            dto.setMobNo(row.getMobNo());
+            dto.setScopes(scopesByUser.getOrDefault(row.getId(), Set.of()));
+            items.add(dto);
+        }
+        return new UserPageResponse(items, more ? rows.get(rows.size() - 1).getId() : null);
+    }
+
+    // Never an empty IN list: -1 matches no id
+    private static List<Long> ids(LongHashSet set) {
+        if (set.isEmpty()) return List.of(-1L);
+        List<Long> ids = new ArrayList<>(set.size());
+        for (long id : set.toArray()) ids.add(id);
+        return ids;
     }
 
     @Override
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        String username = userRepository.findUsernameById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.deleteById(id);
+        userDetailsService.evict(username);
+        tokenVersionCache.invalidate(id);
     }
 
     private UserResponse toResponse(User user) {
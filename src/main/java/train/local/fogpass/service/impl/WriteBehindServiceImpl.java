@@ -0,0 +1,496 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import train.local.fogpass.entity.enums.AlertType;
+import train.local.fogpass.model.AlertEvent;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.model.JourneyLogRecord;
+import train.local.fogpass.service.WriteBehindService;
+import train.local.fogpass.util.FixEncoding;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Write-behind persistence for high-volume rows (track_points, triggered_alert, journey_logs).
+ *
+ * Producers only append to an in-memory queue. A single flusher thread drains each queue in
+ * batches of {@code batch-size} whenever a queue reaches that size or {@code flush-interval-ms}
+ * has passed, and writes each batch with one JdbcTemplate batch INSERT (sent as a multi-row
+ * insert thanks to rewriteBatchedStatements) — no IDENTITY round trip per row.
+ *
+ * If MySQL is unavailable, or slower than {@code slow-write-ms}, the service backs off for
+ * {@code backoff-ms} and appends batches to a local NDJSON spool file (fsync'd per batch) instead.
+ * Once MySQL is healthy again the spool is replayed into the table, checkpointing after every batch
+ * so a crash or a new outage resumes where it stopped rather than inserting rows twice.
+ *
+ * A batch rejected for its data (e.g. a foreign key to a deleted journey) is retried row by row; rows
+ * that still fail, and spool lines that cannot be parsed, go to a per-table dead-letter file so one
+ * bad row never holds back the rest.
+ */
+@Service
+public class WriteBehindServiceImpl implements WriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindServiceImpl.class);
+
+    // One buffered table: queue, INSERT statement and spool (de)serialisation
+    private final class Buffer<T> {
+        private final String table;
+        private final String insertSql;
+        private final ParameterizedPreparedStatementSetter<T> setter;
+        private final Function<T, ObjectNode> toSpool;
+        private final Function<JsonNode, T> fromSpool;
+        private final LinkedBlockingQueue<T> queue;
+        private final Path spoolFile;
+        private final Path replayFile;
+        private final Path replayOffsetFile;  // lines of replayFile already handled
+        private final Path deadLetterFile;
+
+        private final LongAdder enqueued = new LongAdder();
+        private final LongAdder written = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder spooled = new LongAdder();
+        private final LongAdder replayed = new LongAdder();
+        private final LongAdder lost = new LongAdder();
+        private final LongAdder deadLettered = new LongAdder();
+
+        private Buffer(String table, String insertSql, ParameterizedPreparedStatementSetter<T> setter,
+                       Function<T, ObjectNode> toSpool, Function<JsonNode, T> fromSpool) {
+            this.table = table;
+            this.insertSql = insertSql;
+            this.setter = setter;
+            this.toSpool = toSpool;
+            this.fromSpool = fromSpool;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+            this.spoolFile = spoolDir.resolve(table + ".ndjson");
+            this.replayFile = spoolDir.resolve(table + ".replaying.ndjson");
+            this.replayOffsetFile = spoolDir.resolve(table + ".replaying.offset");
+            this.deadLetterFile = spoolDir.resolve(table + ".dead.ndjson");
+        }
+
+        private void enqueue(T row) {
+            enqueued.increment();
+            if (!queue.offer(row)) {
+                // Buffer full: spill straight to disk rather than drop or block the producer
+                spool(this, List.of(row));
+                return;
+            }
+            if (queue.size() >= batchSize) {
+                wakeUp.release();
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final long flushIntervalMs;
+    private final long slowWriteMs;
+    private final long backoffMs;
+    private final Path spoolDir;
+
+    private final Buffer<JourneyLogRecord> logs;
+    private final Buffer<AlertEvent> alerts;
+    private final Buffer<GpsFix> trackPoints;
+    private final List<Buffer<?>> buffers;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private volatile long degradedUntil;
+    private final LongAdder slowWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+
+    public WriteBehindServiceImpl(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.write-behind.batch-size:1000}") int batchSize,
+                                  @Value("${app.write-behind.queue-capacity:200000}") int queueCapacity,
+                                  @Value("${app.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                  @Value("${app.write-behind.slow-write-ms:2000}") long slowWriteMs,
+                                  @Value("${app.write-behind.backoff-ms:30000}") long backoffMs,
+                                  @Value("${app.write-behind.spool-dir:./spool}") String spoolDir) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.flushIntervalMs = flushIntervalMs;
+        this.slowWriteMs = slowWriteMs;
+        this.backoffMs = backoffMs;
+        this.spoolDir = Files.createDirectories(Paths.get(spoolDir));
+
+        this.logs = new Buffer<>("journey_logs",
+                "INSERT INTO journey_logs (journey_id, log_timestamp, event_type, event_data) VALUES (?, ?, ?, ?)",
+                (ps, r) -> {
+                    ps.setLong(1, r.getJourneyId());
+                    ps.setObject(2, toUtc(r.getTimestamp()));
+                    ps.setString(3, r.getEventType());
+                    ps.setString(4, r.getEventData());
+                },
+                r -> objectMapper.createObjectNode()
+                        .put("journeyId", r.getJourneyId())
+                        .put("timestamp", r.getTimestamp())
+                        .put("eventType", r.getEventType())
+                        .put("eventData", r.getEventData()),
+                n -> new JourneyLogRecord(n.get("journeyId").asLong(), n.get("timestamp").asLong(),
+                        n.get("eventType").asText(null), n.get("eventData").asText(null)));
+
+        this.alerts = new Buffer<>("triggered_alert",
+                "INSERT INTO triggered_alert (journey_id, landmark_id, alert_type, landmark_type, distance_meters, triggered_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                (ps, a) -> {
+                    ps.setLong(1, a.getJourneyId());
+                    ps.setLong(2, a.getLandmarkId());
+                    ps.setString(3, a.getAlertType().name());
+                    ps.setString(4, a.getLandmarkType());
+                    ps.setInt(5, a.getDistanceMeters());
+                    ps.setObject(6, toUtc(a.getTimestamp()));
+                },
+                a -> objectMapper.createObjectNode()
+                        .put("journeyId", a.getJourneyId())
+                        .put("landmarkId", a.getLandmarkId())
+                        .put("alertType", a.getAlertType().name())
+                        .put("landmarkType", a.getLandmarkType())
+                        .put("distanceMeters", a.getDistanceMeters())
+                        .put("timestamp", a.getTimestamp()),
+                n -> new AlertEvent(n.get("journeyId").asLong(), n.get("landmarkId").asLong(), 0, null,
+                        n.get("landmarkType").asText(null), AlertType.valueOf(n.get("alertType").asText()),
+                        n.get("distanceMeters").asInt(), null, n.get("timestamp").asLong()));
+
+        // INSERT IGNORE: a fix re-sent for the same (journey_id, ts) is a duplicate, not an error
+        this.trackPoints = new Buffer<>("track_points",
+                "INSERT IGNORE INTO track_points (journey_id, ts, lat_e7, lon_e7, speed_tenths, heading_tenths) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                (ps, f) -> {
+                    ps.setLong(1, f.getJourneyId());
+                    ps.setLong(2, f.getTimestamp());
+                    ps.setInt(3, FixEncoding.toE7(f.getLatitude()));
+                    ps.setInt(4, FixEncoding.toE7(f.getLongitude()));
+                    ps.setShort(5, FixEncoding.toTenths(f.getSpeed()));
+                    ps.setShort(6, FixEncoding.toTenths(f.getHeading()));
+                },
+                f -> objectMapper.createObjectNode()
+                        .put("journeyId", f.getJourneyId())
+                        .put("timestamp", f.getTimestamp())
+                        .put("latitude", f.getLatitude())
+                        .put("longitude", f.getLongitude())
+                        .put("speed", f.getSpeed())
+                        .put("heading", f.getHeading()),
+                n -> new GpsFix(n.get("journeyId").asLong(), n.get("timestamp").asLong(),
+                        n.get("latitude").asDouble(), n.get("longitude").asDouble(),
+                        (float) n.get("speed").asDouble(), (float) n.get("heading").asDouble()));
+
+        this.buffers = List.of(trackPoints, logs, alerts);
+
+        this.flusher = new Thread(this::flushLoop, "write-behind-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    private static LocalDateTime toUtc(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    @Override
+    public void enqueueLog(JourneyLogRecord record) {
+        logs.enqueue(record);
+    }
+
+    @Override
+    public void enqueueAlert(AlertEvent alert) {
+        alerts.enqueue(alert);
+    }
+
+    @Override
+    public void enqueueTrackPoint(GpsFix fix) {
+        trackPoints.enqueue(fix);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                // Wake on a full batch or after the flush interval, whichever comes first
+                wakeUp.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                flush();
+                replaySpools();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind flush cycle failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (Buffer<?> b : buffers) {
+            flushBuffer(b);
+        }
+    }
+
+    private <T> void flushBuffer(Buffer<T> b) {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (b.queue.drainTo(batch, batchSize) > 0) {
+            int handled = System.currentTimeMillis() < degradedUntil ? 0 : write(b, batch);
+            if (handled < batch.size()) {
+                spool(b, batch.subList(handled, batch.size()));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Write a batch; returns how many leading rows were handled (written or dead-lettered). The rest
+     * could not be written because MySQL is unavailable and must be kept for a later attempt.
+     */
+    private <T> int write(Buffer<T> b, List<T> batch) {
+        long start = System.nanoTime();
+        try {
+            // One transaction: a batch split into several statements is never left half inserted
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(b.insertSql, batch, batch.size(), b.setter));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Write-behind batch into {} rejected ({}); retrying row by row",
+                    b.table, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return writeRowByRow(b, batch);
+        } catch (DataAccessException e) {
+            degrade(b, e);
+            return 0;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (elapsedMs > slowWriteMs) {
+            // Written, but MySQL is struggling: keep the next batches off it for a while
+            slowWrites.increment();
+            degradedUntil = System.currentTimeMillis() + backoffMs;
+            log.warn("Write-behind insert of {} rows into {} took {} ms; spooling to disk for {} ms",
+                    batch.size(), b.table, elapsedMs, backoffMs);
+        }
+        b.written.add(batch.size());
+        b.batches.increment();
+        return batch.size();
+    }
+
+    // Isolates the rows that fail on their own; stops at the first failure that is not about the row itself
+    private <T> int writeRowByRow(Buffer<T> b, List<T> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            T row = batch.get(i);
+            try {
+                jdbcTemplate.update(b.insertSql, ps -> b.setter.setValues(ps, row));
+                b.written.increment();
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Write-behind row for {} rejected, dead-lettered: {}",
+                        b.table, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                deadLetter(b, List.of(b.toSpool.apply(row).toString()));
+            } catch (DataAccessException e) {
+                degrade(b, e);
+                return i;
+            }
+        }
+        return batch.size();
+    }
+
+    private void degrade(Buffer<?> b, DataAccessException e) {
+        failedWrites.increment();
+        degradedUntil = System.currentTimeMillis() + backoffMs;
+        log.warn("Write-behind insert into {} failed; spooling to disk for {} ms", b.table, backoffMs, e);
+    }
+
+    private <T> void spool(Buffer<T> b, List<T> rows) {
+        List<String> lines = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            lines.add(b.toSpool.apply(row).toString());
+        }
+        if (appendLines(b, b.spoolFile, lines)) {
+            b.spooled.add(rows.size());
+        } else {
+            b.lost.add(rows.size());
+        }
+    }
+
+    private void deadLetter(Buffer<?> b, List<String> lines) {
+        if (appendLines(b, b.deadLetterFile, lines)) {
+            b.deadLettered.add(lines.size());
+        } else {
+            b.lost.add(lines.size());
+        }
+    }
+
+    private boolean appendLines(Buffer<?> b, Path file, List<String> lines) {
+        synchronized (b) {
+            try (FileOutputStream out = new FileOutputStream(file.toFile(), true);
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                writer.flush();
+                out.getFD().sync();
+                return true;
+            } catch (IOException e) {
+                log.error("Failed to append {} rows to {}; rows lost", lines.size(), file, e);
+                return false;
+            }
+        }
+    }
+
+    void replaySpools() {
+        for (Buffer<?> b : buffers) {
+            if (System.currentTimeMillis() < degradedUntil) return;
+            replay(b);
+        }
+    }
+
+    /**
+     * Move the spool aside and stream it back into MySQL batch by batch. The number of handled lines is
+     * checkpointed after every batch; an outage leaves the file in place and the next cycle skips what
+     * was already written.
+     */
+    private <T> void replay(Buffer<T> b) {
+        synchronized (b) {
+            try {
+                if (!Files.exists(b.replayFile)) {
+                    if (!Files.exists(b.spoolFile) || Files.size(b.spoolFile) == 0) return;
+                    Files.move(b.spoolFile, b.replayFile, StandardCopyOption.ATOMIC_MOVE);
+                    Files.deleteIfExists(b.replayOffsetFile);
+                }
+            } catch (IOException e) {
+                log.error("Cannot rotate spool file {}", b.spoolFile, e);
+                return;
+            }
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(b.replayFile, StandardCharsets.UTF_8)) {
+            long done = readReplayOffset(b);
+            long lineNo = 0;
+            List<T> rows = new ArrayList<>(batchSize);
+            List<Long> rowLines = new ArrayList<>(batchSize); // line number of each row
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null && ++lineNo > done && !line.isBlank()) {
+                    T row = parseSpoolLine(b, line);
+                    if (row != null) {
+                        rows.add(row);
+                        rowLines.add(lineNo);
+                    }
+                }
+                if (rows.size() == batchSize || (line == null && !rows.isEmpty())) {
+                    int handled = write(b, rows);
+                    b.replayed.add(handled);
+                    if (handled < rows.size()) {
+                        if (handled > 0) writeReplayOffset(b, rowLines.get(handled - 1));
+                        return; // MySQL went away: resume from the first unwritten row next time
+                    }
+                    writeReplayOffset(b, lineNo);
+                    rows.clear();
+                    rowLines.clear();
+                }
+                if (line == null) break;
+            }
+        } catch (IOException e) {
+            log.error("Failed to replay spool file {}", b.replayFile, e);
+            return;
+        }
+        try {
+            Files.deleteIfExists(b.replayFile);
+            Files.deleteIfExists(b.replayOffsetFile);
+        } catch (IOException e) {
+            log.error("Failed to delete replayed spool file {}", b.replayFile, e);
+        }
+    }
+
+    // A torn or corrupt line (e.g. from a crash mid-append) is dead-lettered instead of aborting the replay
+    private <T> T parseSpoolLine(Buffer<T> b, String line) {
+        try {
+            return b.fromSpool.apply(objectMapper.readTree(line));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unreadable spool line for {}, dead-lettered: {}", b.table, e.getMessage());
+            deadLetter(b, List.of(line));
+            return null;
+        }
+    }
+
+    private long readReplayOffset(Buffer<?> b) {
+        try {
+            return Files.exists(b.replayOffsetFile) ? Long.parseLong(Files.readString(b.replayOffsetFile).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Unreadable replay offset {}; replaying {} from the start", b.replayOffsetFile, b.table, e);
+            return 0;
+        }
+    }
+
+    private void writeReplayOffset(Buffer<?> b, long lines) throws IOException {
+        Files.writeString(b.replayOffsetFile, Long.toString(lines), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                StandardOpenOption.SYNC);
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("degraded", System.currentTimeMillis() < degradedUntil);
+        stats.put("failedWrites", failedWrites.sum());
+        stats.put("slowWrites", slowWrites.sum());
+        for (Buffer<?> b : buffers) {
+            Map<String, Object> s = new LinkedHashMap<>();
+            long batchCount = b.batches.sum();
+            s.put("queued", b.queue.size());
+            s.put("enqueued", b.enqueued.sum());
+            s.put("written", b.written.sum());
+            s.put("batches", batchCount);
+            s.put("avgBatchSize", batchCount == 0 ? 0.0 : (double) b.written.sum() / batchCount);
+            s.put("spooled", b.spooled.sum());
+            s.put("replayed", b.replayed.sum());
+            s.put("deadLettered", b.deadLettered.sum());
+            s.put("lost", b.lost.sum());
+            stats.put(b.table, s);
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        wakeUp.release();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flush(); // anything enqueued during shutdown: MySQL if possible, otherwise the spool
+    }
+}
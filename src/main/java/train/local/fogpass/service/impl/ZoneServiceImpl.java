@@ -2,11 +2,18 @@ package train.local.fogpass.service.impl;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import train.local.fogpass.dto.response.DivisionResponse;
+import train.local.fogpass.dto.response.ZoneResponse;
 import train.local.fogpass.entity.Zone;
+import train.local.fogpass.repository.DivisionRepository;
+import train.local.fogpass.repository.HierarchyBulkInsertRepository;
 import train.local.fogpass.repository.ZonesRepository;
+import train.local.fogpass.service.HierarchyService;
 import train.local.fogpass.service.ZoneService;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -15,14 +22,30 @@ import java.util.stream.Collectors;
 public class ZoneServiceImpl implements ZoneService {
 
     private final ZonesRepository zonesRepository;
+    private final DivisionRepository divisionRepository;
+    private final HierarchyBulkInsertRepository bulkInsertRepository;
+    private final HierarchyService hierarchyService;
 
-    public ZoneServiceImpl(ZonesRepository zonesRepository) {
+    public ZoneServiceImpl(ZonesRepository zonesRepository, DivisionRepository divisionRepository,
+                           HierarchyBulkInsertRepository bulkInsertRepository, HierarchyService hierarchyService) {
         this.zonesRepository = zonesRepository;
+        this.divisionRepository = divisionRepository;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.hierarchyService = hierarchyService;
     }
 
     @Override
-    public List<Zone> getAllZones() {
-        return zonesRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ZoneResponse> getAllZones() {
+        // Two statements whatever the number of zones: zones, then every division with its zone id
+        List<ZoneResponse> zones = zonesRepository.findAllResponses();
+        Map<Long, ZoneResponse> byId = new HashMap<>();
+        for (ZoneResponse z : zones) byId.put(z.getZoneId(), z);
+        for (DivisionResponse d : divisionRepository.findAllResponses()) {
+            ZoneResponse zone = byId.get(d.getZoneId());
+            if (zone != null) zone.getDivisions().add(d);
+        }
+        return zones;
     }
 
     @Override
@@ -34,7 +57,9 @@ public class ZoneServiceImpl implements ZoneService {
     public Zone createZone(Zone zone) {
         Zone toSave = new Zone();
         toSave.setZonename(zone.getZonename());
-        return zonesRepository.save(toSave);
+        Zone saved = zonesRepository.save(toSave);
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 
     @Override
@@ -42,14 +67,17 @@ public class ZoneServiceImpl implements ZoneService {
         return zonesRepository.findById(id)
                 .map(existing -> {
                     existing.setZonename(zone.getZonename());
-                    return zonesRepository.save(existing);
+                    Zone saved = zonesRepository.save(existing);
+                    hierarchyService.onHierarchyChanged();
+                    return saved;
                 });
     }
 
     @Override
     public boolean deleteZone(Long id) {
         if (!zonesRepository.existsById(id)) return false;
-        zonesRepository.deleteById(id);
+        zonesRepository.deleteById(id); // cascades to the zone's divisions
+        hierarchyService.onHierarchyChanged();
         return true;
     }
 
@@ -64,6 +92,8 @@ public class ZoneServiceImpl implements ZoneService {
                 })
                 .collect(Collectors.toList());
 
-        return zonesRepository.saveAll(toSave);
+        List<Zone> saved = bulkInsertRepository.insertZones(toSave); // batched; saveAll is one round trip per row
+        hierarchyService.onHierarchyChanged();
+        return saved;
     }
 }
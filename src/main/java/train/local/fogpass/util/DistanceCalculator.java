@@ -1,3 +1,58 @@
 package train.local.fogpass.util;
 
-public class DistanceCalculator {}
+/**
+ * Allocation-free distance math on primitive doubles.
+ *
+ * Hot-path callers keep coordinates pre-converted to radians (and the cosine of the latitude
+ * precomputed), then use {@link #isWithin} which settles almost every comparison with the cheap
+ * equirectangular approximation and only falls back to the exact haversine formula when the
+ * point lies within a thin band around the limit.
+ */
+public final class DistanceCalculator {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    public static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    // Relative error band of the equirectangular approximation at prewarning ranges (a few km)
+    private static final double APPROX_TOLERANCE = 0.005;
+
+    private DistanceCalculator() {}
+
+    // Great-circle distance in meters between two points given in degrees
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        return haversineRad(lat1Rad, Math.toRadians(lon1), Math.cos(lat1Rad),
+                lat2Rad, Math.toRadians(lon2), Math.cos(lat2Rad));
+    }
+
+    /** Exact great-circle distance in meters; inputs in radians with the latitudes' cosines precomputed. */
+    public static double haversineRad(double lat1, double lon1, double cosLat1,
+                                      double lat2, double lon2, double cosLat2) {
+        double sinLat = Math.sin((lat2 - lat1) * 0.5);
+        double sinLon = Math.sin((lon2 - lon1) * 0.5);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+        return 2.0 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Squared equirectangular distance in meters², using the cosine of the reference latitude.
+     * No trigonometry at all; accurate to well under 1% for distances of a few kilometres.
+     */
+    public static double equirectangularSq(double lat1, double lon1, double cosRefLat, double lat2, double lon2) {
+        double x = (lon2 - lon1) * cosRefLat;
+        double y = lat2 - lat1;
+        return (x * x + y * y) * EARTH_RADIUS_METERS * EARTH_RADIUS_METERS;
+    }
+
+    /** Whether the two points (radians, cosines precomputed) are at most {@code limitMeters} apart. */
+    public static boolean isWithin(double lat1, double lon1, double cosLat1,
+                                   double lat2, double lon2, double cosLat2, double limitMeters) {
+        double approxSq = equirectangularSq(lat1, lon1, cosLat1, lat2, lon2);
+        double upper = limitMeters * (1.0 + APPROX_TOLERANCE);
+        if (approxSq > upper * upper) return false;
+        double lower = limitMeters * (1.0 - APPROX_TOLERANCE);
+        if (approxSq < lower * lower) return true;
+        return haversineRad(lat1, lon1, cosLat1, lat2, lon2, cosLat2) <= limitMeters;
+    }
+}
@@ -0,0 +1,28 @@
+package train.local.fogpass.util;
+
+/**
+ * Fixed-point encoding of GPS values shared by the binary wire frame and the track_points table:
+ * coordinates as degrees x 1e7 in an int (~1 cm resolution), speed and heading in tenths. Requests are
+ * validated against {@link #MAX_SPEED_KMH} and {@link #MAX_HEADING_DEG}; tenths saturate rather than wrap.
+ */
+public final class FixEncoding {
+
+    public static final int MAX_SPEED_KMH = 500;   // keep in line with GpsUpdateRequest
+    public static final int MAX_HEADING_DEG = 360;
+
+    private static final double COORD_SCALE = 1e7;
+    private static final float TENTHS = 10f;
+
+    private FixEncoding() {
+    }
+
+    public static int toE7(double degrees) { return (int) Math.round(degrees * COORD_SCALE); }
+
+    public static double fromE7(int e7) { return e7 / COORD_SCALE; }
+
+    public static short toTenths(float value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value * TENTHS)));
+    }
+
+    public static float fromTenths(int tenths) { return tenths / TENTHS; }
+}
@@ -0,0 +1,88 @@
+package train.local.fogpass.util;
+
+import train.local.fogpass.exception.BadRequestException;
+import train.local.fogpass.model.GpsFix;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Packed binary GPS frame used by cab devices on slow links (big-endian):
+ *
+ * <pre>
+ * header  (4 bytes)   u8 version (=1) | u8 reserved | u16 fix count
+ * fix     (20 bytes)  i64 timestamp (epoch ms) | i32 latitude (deg x 1e7) | i32 longitude (deg x 1e7)
+ *                     | u16 speed (km/h x 10) | u16 heading (deg x 10)
+ * </pre>
+ *
+ * A fix is 20 bytes on the wire versus ~110 bytes of JSON, and decoding is a handful of
+ * absolute ByteBuffer reads per fix with no intermediate objects besides the {@link GpsFix} itself.
+ */
+public final class GpsBinaryFrame {
+
+    public static final String MEDIA_TYPE = "application/vnd.fogpass.gps-frame";
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 4;
+    public static final int FIX_BYTES = 20;
+
+    private GpsBinaryFrame() {
+    }
+
+    /** Decode every fix in the frame and hand it to {@code sink}; returns the number of fixes. */
+    public static int decode(long journeyId, ByteBuffer frame, int maxFixes, Consumer<GpsFix> sink) {
+        if (frame.remaining() < HEADER_BYTES) {
+            throw new BadRequestException("GPS frame too short");
+        }
+        int base = frame.position();
+        int version = frame.get(base) & 0xFF;
+        if (version != VERSION) {
+            throw new BadRequestException("Unsupported GPS frame version " + version);
+        }
+        int count = frame.getShort(base + 2) & 0xFFFF;
+        if (count > maxFixes) {
+            throw new BadRequestException("GPS frame holds " + count + " fixes; at most " + maxFixes + " allowed");
+        }
+        if (frame.remaining() != HEADER_BYTES + count * FIX_BYTES) {
+            throw new BadRequestException("GPS frame length does not match its fix count");
+        }
+
+        // Validate the whole frame first so a bad fix never leaves the batch half queued
+        for (int i = 0, off = base + HEADER_BYTES; i < count; i++, off += FIX_BYTES) {
+            int lat = frame.getInt(off + 8);
+            int lon = frame.getInt(off + 12);
+            if (lat < -900_000_000 || lat > 900_000_000 || lon < -1_800_000_000 || lon > 1_800_000_000) {
+                throw new BadRequestException("GPS frame fix " + i + " has out-of-range coordinates");
+            }
+            int speed = frame.getShort(off + 16) & 0xFFFF;
+            int heading = frame.getShort(off + 18) & 0xFFFF;
+            if (speed > FixEncoding.MAX_SPEED_KMH * 10 || heading > FixEncoding.MAX_HEADING_DEG * 10) {
+                throw new BadRequestException("GPS frame fix " + i + " has out-of-range speed or heading");
+            }
+        }
+        for (int i = 0, off = base + HEADER_BYTES; i < count; i++, off += FIX_BYTES) {
+            sink.accept(new GpsFix(
+                    journeyId,
+                    frame.getLong(off),
+                    FixEncoding.fromE7(frame.getInt(off + 8)),
+                    FixEncoding.fromE7(frame.getInt(off + 12)),
+                    FixEncoding.fromTenths(frame.getShort(off + 16) & 0xFFFF),
+                    FixEncoding.fromTenths(frame.getShort(off + 18) & 0xFFFF)
+            ));
+        }
+        return count;
+    }
+
+    /** Encode fixes into a frame (used by device simulators and tests). */
+    public static byte[] encode(GpsFix... fixes) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + fixes.length * FIX_BYTES);
+        buf.put((byte) VERSION).put((byte) 0).putShort((short) fixes.length);
+        for (GpsFix fix : fixes) {
+            buf.putLong(fix.getTimestamp())
+                    .putInt(FixEncoding.toE7(fix.getLatitude()))
+                    .putInt(FixEncoding.toE7(fix.getLongitude()))
+                    .putShort(FixEncoding.toTenths(fix.getSpeed()))
+                    .putShort(FixEncoding.toTenths(fix.getHeading()));
+        }
+        return buf.array();
+    }
+}
@@ -0,0 +1,18 @@
+package train.local.fogpass.util;
+
+public final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    /** True if an If-None-Match header value matches {@code etag} (or is "*"). */
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2); // weak comparison is fine for If-None-Match
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
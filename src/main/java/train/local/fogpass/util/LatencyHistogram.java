@@ -0,0 +1,55 @@
+package train.local.fogpass.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets
+ * (bucket k holds samples in [2^(k-1), 2^k) µs). Percentiles are reported as the bucket's
+ * upper bound, i.e. within a factor of two, which is plenty for "is p99 under 1 ms".
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long micros = nanos / 1000;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() { return count.sum(); }
+
+    public double getAvgMicros() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1000.0 / n;
+    }
+
+    public double getMaxMicros() { return maxNanos.get() / 1000.0; }
+
+    /** Upper bound (µs) of the bucket containing the given percentile (0-100). */
+    public long percentileMicros(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) return 1L << i;
+        }
+        return 1L << (BUCKETS - 1);
+    }
+}
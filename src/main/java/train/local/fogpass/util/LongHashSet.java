@@ -0,0 +1,98 @@
+package train.local.fogpass.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs (linear probing, power-of-two table), so membership
+ * checks on id sets neither box nor chase pointers. Not thread-safe while being filled; safe to share
+ * once published and no longer modified.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L; // slot marker; the value 0 itself is tracked separately
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expected) {
+        table = new long[tableSizeFor(expected)];
+    }
+
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        if (++size * 2 > table.length) grow();
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) return containsZero;
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        long v;
+        while ((v = table[i]) != EMPTY) {
+            if (v == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /** Values in no particular order. */
+    public long[] toArray() {
+        long[] out = new long[size];
+        int n = 0;
+        if (containsZero) out[n++] = EMPTY;
+        for (long v : table) {
+            if (v != EMPTY) out[n++] = v;
+        }
+        return out;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long v : old) {
+            if (v == EMPTY) continue;
+            int i = mix(v) & mask;
+            while (table[i] != EMPTY) i = (i + 1) & mask;
+            table[i] = v;
+        }
+    }
+
+    // Sequential ids would cluster under identity hashing; spread them first
+    private static int mix(long v) {
+        long h = v * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expected) {
+        int n = Integer.highestOneBit(Math.max(4, expected * 2 - 1) << 1);
+        return Math.max(8, n);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
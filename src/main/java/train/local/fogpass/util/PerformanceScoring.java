@@ -0,0 +1,41 @@
+package train.local.fogpass.util;
+
+import train.local.fogpass.entity.PerformanceSummary;
+import train.local.fogpass.entity.enums.PunctualityStatus;
+import train.local.fogpass.model.PerformanceAccumulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Turns journey aggregates into the {@link PerformanceSummary} figures. Shared by the live summary, the
+ * summary persisted at journey end and any later rescoring, so all of them score the same way.
+ *
+ * The schema has no timetable, so delay is the time spent standing; efficiency is the share of the
+ * journey spent moving within the authorized speed (0-100).
+ */
+public final class PerformanceScoring {
+
+    private PerformanceScoring() {
+    }
+
+    /** Fill the summary's scored fields from {@code s}; O(1) whatever the journey length. */
+    public static PerformanceSummary applyTo(PerformanceSummary summary, PerformanceAccumulator.Snapshot s,
+                                             int delayToleranceMinutes) {
+        long duration = s.durationMillis();
+        int delayMinutes = (int) Math.round(s.stoppedMillis() / 60_000.0);
+
+        summary.setTotalAlerts(s.alerts());
+        summary.setTotalDelayMinutes(delayMinutes);
+        summary.setPunctualityStatus(delayMinutes > delayToleranceMinutes ? PunctualityStatus.DELAYED : PunctualityStatus.ON_TIME);
+        if (duration == 0) {
+            summary.setAvgSpeed(BigDecimal.ZERO.setScale(2));
+            summary.setEfficiencyScore(BigDecimal.ZERO.setScale(2));
+            return summary;
+        }
+        summary.setAvgSpeed(BigDecimal.valueOf(s.speedMillisSum() / duration).setScale(2, RoundingMode.HALF_UP));
+        long efficientMillis = Math.max(0, duration - s.stoppedMillis() - s.overspeedMillis());
+        summary.setEfficiencyScore(BigDecimal.valueOf(100.0 * efficientMillis / duration).setScale(2, RoundingMode.HALF_UP));
+        return summary;
+    }
+}
@@ -0,0 +1,131 @@
+package train.local.fogpass.util;
+
+import train.local.fogpass.model.TrackPointSink;
+
+import java.util.Arrays;
+
+/**
+ * Compact encoding of a whole journey track, used for archived journeys.
+ *
+ * <pre>
+ * header  u8 version (=1) | i32 point count (big-endian)
+ * point 0 every field as a zigzag varint
+ * point n timestamp as delta-of-delta, all other fields as deltas; each a zigzag varint
+ * </pre>
+ *
+ * At a steady 1 Hz the timestamp costs one byte, and lat/lon deltas of a train (tens of metres per
+ * second, i.e. a few thousand e7 units) fit in two bytes each, so a point shrinks from 28 bytes of
+ * fixed columns to about 7.
+ */
+public final class TrackCodec {
+
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private TrackCodec() {
+    }
+
+    /** Streaming encoder; points must be added in time order. */
+    public static final class Encoder {
+        private byte[] buf = new byte[4096];
+        private int pos = HEADER_BYTES;
+        private int count;
+        private long firstTs;
+        private long prevTs;
+        private long prevDelta;
+        private int prevLat;
+        private int prevLon;
+        private int prevSpeed;
+        private int prevHeading;
+
+        public void add(long ts, int latE7, int lonE7, short speedTenths, short headingTenths) {
+            if (count == 0) {
+                firstTs = ts;
+                writeVarLong(zigzag(ts));
+            } else {
+                long delta = ts - prevTs;
+                writeVarLong(zigzag(delta - prevDelta));
+                prevDelta = delta;
+            }
+            writeVarLong(zigzag((long) latE7 - prevLat));
+            writeVarLong(zigzag((long) lonE7 - prevLon));
+            writeVarLong(zigzag(speedTenths - prevSpeed));
+            writeVarLong(zigzag(headingTenths - prevHeading));
+            prevTs = ts;
+            prevLat = latE7;
+            prevLon = lonE7;
+            prevSpeed = speedTenths;
+            prevHeading = headingTenths;
+            count++;
+        }
+
+        public int getCount() { return count; }
+        public long getFirstTs() { return firstTs; }
+        public long getLastTs() { return prevTs; }
+
+        public byte[] toByteArray() {
+            buf[0] = (byte) VERSION;
+            buf[1] = (byte) (count >>> 24);
+            buf[2] = (byte) (count >>> 16);
+            buf[3] = (byte) (count >>> 8);
+            buf[4] = (byte) count;
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void writeVarLong(long v) {
+            if (pos + 10 > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+    }
+
+    /** Decode every point in order into {@code sink}; returns the number of points. */
+    public static int decode(byte[] data, TrackPointSink sink) {
+        if (data.length < HEADER_BYTES || data[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported track archive format");
+        }
+        int count = ((data[1] & 0xFF) << 24) | ((data[2] & 0xFF) << 16) | ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+        int[] pos = {HEADER_BYTES};
+        long ts = 0;
+        long delta = 0;
+        int lat = 0;
+        int lon = 0;
+        int speed = 0;
+        int heading = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                ts = unzigzag(readVarLong(data, pos));
+            } else {
+                delta += unzigzag(readVarLong(data, pos));
+                ts += delta;
+            }
+            lat += (int) unzigzag(readVarLong(data, pos));
+            lon += (int) unzigzag(readVarLong(data, pos));
+            speed += (int) unzigzag(readVarLong(data, pos));
+            heading += (int) unzigzag(readVarLong(data, pos));
+            sink.accept(ts, lat, lon, (short) speed, (short) heading);
+        }
+        return count;
+    }
+
+    private static long readVarLong(byte[] data, int[] pos) {
+        long result = 0;
+        int shift = 0;
+        int p = pos[0];
+        byte b;
+        do {
+            b = data[p++];
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        pos[0] = p;
+        return result;
+    }
+
+    private static long zigzag(long v) { return (v << 1) ^ (v >> 63); }
+
+    private static long unzigzag(long v) { return (v >>> 1) ^ -(v & 1); }
+}
@@ -0,0 +1,94 @@
+package train.local.fogpass;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import train.local.fogpass.dto.response.ZoneResponse;
+import train.local.fogpass.entity.Division;
+import train.local.fogpass.entity.Section;
+import train.local.fogpass.entity.Zone;
+import train.local.fogpass.repository.DivisionRepository;
+import train.local.fogpass.repository.SectionRepository;
+import train.local.fogpass.repository.ZonesRepository;
+import train.local.fogpass.service.DivisionService;
+import train.local.fogpass.service.SectionService;
+import train.local.fogpass.service.ZoneService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The zone, division and section list endpoints must run a fixed number of statements however many rows exist
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class HierarchyListQueryCountTests {
+
+    private static final int ZONES = 5;
+    private static final int DIVISIONS_PER_ZONE = 4;
+    private static final int SECTIONS_PER_DIVISION = 3;
+
+    @Autowired private ZonesRepository zonesRepository;
+    @Autowired private DivisionRepository divisionRepository;
+    @Autowired private SectionRepository sectionRepository;
+    @Autowired private ZoneService zoneService;
+    @Autowired private DivisionService divisionService;
+    @Autowired private SectionService sectionService;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        for (int z = 0; z < ZONES; z++) {
+            Zone zone = new Zone();
+            zone.setZonename("qc-zone-" + z);
+            zonesRepository.save(zone);
+            for (int d = 0; d < DIVISIONS_PER_ZONE; d++) {
+                Division division = new Division();
+                division.setName("qc-division-" + z + "-" + d);
+                division.setZone(zone);
+                divisionRepository.save(division);
+                for (int s = 0; s < SECTIONS_PER_DIVISION; s++) {
+                    Section section = new Section();
+                    section.setName("qc-section-" + z + "-" + d + "-" + s);
+                    section.setDivision(division);
+                    sectionRepository.save(section);
+                }
+            }
+        }
+        // Nothing may be served from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void zoneListRunsTwoStatements() {
+        List<ZoneResponse> zones = zoneService.getAllZones();
+        assertTrue(zones.size() >= ZONES);
+        assertTrue(zones.stream().filter(z -> z.getZonename().startsWith("qc-zone-"))
+                .allMatch(z -> z.getDivisions().size() == DIVISIONS_PER_ZONE));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void divisionListRunsOneStatement() {
+        assertTrue(divisionService.getAllDivisions().size() >= ZONES * DIVISIONS_PER_ZONE);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void sectionListRunsOneStatement() {
+        assertTrue(sectionService.getAllSections().size() >= ZONES * DIVISIONS_PER_ZONE * SECTIONS_PER_DIVISION);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
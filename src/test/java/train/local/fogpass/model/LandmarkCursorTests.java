@@ -0,0 +1,73 @@
+package train.local.fogpass.model;
+
+import org.junit.jupiter.api.Test;
+import train.local.fogpass.entity.Landmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LandmarkCursorTests {
+
+    private static final LandmarkCursor.Settings SETTINGS = new LandmarkCursor.Settings(3, 30_000, 3_000, 30, 50);
+
+    // Four landmarks on the equator, ~1.1 km apart, 500 m prewarning each
+    private static RouteLandmarks route() {
+        List<Landmark> landmarks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Landmark l = new Landmark();
+            l.setId((long) i + 1);
+            l.setSequenceOrder(i + 1);
+            l.setLatitude(BigDecimal.ZERO);
+            l.setLongitude(BigDecimal.valueOf(i * 0.01));
+            l.setPrewarningDistance(500);
+            landmarks.add(l);
+        }
+        return RouteLandmarks.build(1L, null, landmarks, 500);
+    }
+
+    @Test
+    void acquiresTheLandmarkAheadThroughTheGrid() {
+        RouteLandmarks route = route();
+        LandmarkCursor cursor = new LandmarkCursor(1L, 1L);
+
+        cursor.advance(route, 0.0, 0.014, 1_000, SETTINGS);
+
+        // Nearest is landmark 1, but the train is already between it and landmark 2
+        assertEquals(2, cursor.getPosition());
+        assertEquals(1, cursor.getReacquisitions());
+    }
+
+    @Test
+    void staysUnacquiredAwayFromEveryLandmark() {
+        RouteLandmarks route = route();
+        LandmarkCursor cursor = new LandmarkCursor(1L, 1L);
+
+        cursor.advance(route, 0.0, 1.0, 1_000, SETTINGS);
+        assertEquals(-1, cursor.getPosition());
+        assertEquals(0, cursor.upcomingCount(SETTINGS));
+
+        cursor.advance(route, 0.0, -0.001, 2_000, SETTINGS);
+        assertEquals(0, cursor.getPosition());
+    }
+
+    @Test
+    void passesTheLastLandmarkWideOfTheAtLandmarkRadius() {
+        RouteLandmarks route = route();
+        LandmarkCursor cursor = new LandmarkCursor(1L, 1L);
+        double lat = 0.0018; // ~200 m north of the line
+
+        cursor.advance(route, lat, 0.026, 1_000, SETTINGS);
+        assertEquals(3, cursor.getPosition());
+
+        int passed = 0;
+        long ts = 2_000;
+        for (double lon = 0.028; lon <= 0.0361; lon += 0.002, ts += 1_000) {
+            passed += cursor.advance(route, lat, lon, ts, SETTINGS);
+        }
+        assertEquals(1, passed);
+        assertEquals(route.pathLength(), cursor.getPosition());
+    }
+}
@@ -0,0 +1,64 @@
+package train.local.fogpass.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerformanceAccumulatorTests {
+
+    private static final int AUTHORIZED = 70;
+
+    @Test
+    void backlogAfterALiveFixMatchesInOrderProcessing() {
+        PerformanceAccumulator inOrder = new PerformanceAccumulator(AUTHORIZED);
+        PerformanceAccumulator live = new PerformanceAccumulator(AUTHORIZED);
+        for (PerformanceAccumulator acc : new PerformanceAccumulator[]{inOrder, live}) {
+            acc.addFix(0, 60f);
+            acc.addFix(1_000, 60f);
+        }
+        // Signal lost from 1 s to 120 s: the backlog ran over the authorized speed, then stood still
+        for (long t = 2_000; t < 120_000; t += 1_000) inOrder.addFix(t, t < 90_000 ? 85f : 0f);
+        inOrder.addFix(120_000, 40f);
+
+        // The live fix at 120 s is processed before the store-and-forward backlog
+        live.addFix(120_000, 40f);
+        for (long t = 2_000; t < 120_000; t += 1_000) live.addFix(t, t < 90_000 ? 85f : 0f);
+
+        assertEquals(inOrder.snapshot(), live.snapshot());
+        assertTrue(live.isExact());
+        assertEquals(118, live.getLateFixes());
+        assertEquals(85f, live.snapshot().maxSpeed());
+    }
+
+    @Test
+    void lateFixBeforeTheFirstOneExtendsTheJourney() {
+        PerformanceAccumulator acc = new PerformanceAccumulator(AUTHORIZED);
+        acc.addFix(60_000, 50f);
+        acc.addFix(61_000, 50f);
+
+        acc.addFix(0, 0f);
+
+        PerformanceAccumulator.Snapshot s = acc.snapshot();
+        assertEquals(0, s.firstTs());
+        assertEquals(61_000, s.durationMillis());
+        assertEquals(60_000, s.stoppedMillis());
+        assertTrue(acc.isExact());
+    }
+
+    @Test
+    void lateFixInsideAShortIntervalMarksTheAggregatesInexact() {
+        PerformanceAccumulator acc = new PerformanceAccumulator(AUTHORIZED);
+        acc.addFix(0, 60f);
+        acc.addFix(10_000, 60f);
+        acc.addFix(12_000, 60f);
+
+        acc.addFix(10_000, 60f); // duplicate of a gap's bound: ignored
+        assertTrue(acc.isExact());
+
+        acc.addFix(11_000, 95f);
+        assertFalse(acc.isExact());
+        assertEquals(95f, acc.snapshot().maxSpeed());
+    }
+}
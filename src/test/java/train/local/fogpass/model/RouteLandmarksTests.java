@@ -0,0 +1,55 @@
+package train.local.fogpass.model;
+
+import org.junit.jupiter.api.Test;
+import train.local.fogpass.entity.Landmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteLandmarksTests {
+
+    // Landmarks on the equator every ~111 m, 500 m prewarning each
+    private static RouteLandmarks route(int count) {
+        List<Landmark> landmarks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Landmark l = new Landmark();
+            l.setId((long) i + 1);
+            l.setSequenceOrder(i + 1);
+            l.setLatitude(BigDecimal.ZERO);
+            l.setLongitude(BigDecimal.valueOf(i * 0.001));
+            l.setPrewarningDistance(500);
+            landmarks.add(l);
+        }
+        return RouteLandmarks.build(1L, null, landmarks, 500);
+    }
+
+    @Test
+    void findsLandmarksWithinTheirPrewarningInSequenceOrder() {
+        int[] out = new int[16];
+
+        int n = route(20).withinPrewarning(0.0, 0.010, out);
+
+        // 0.006 .. 0.014 are within 500 m of 0.010
+        assertEquals(9, n);
+        assertArrayEquals(new int[]{6, 7, 8, 9, 10, 11, 12, 13, 14}, Arrays.copyOf(out, n));
+    }
+
+    @Test
+    void reportsTheFullCountWhenTheBufferIsTooSmall() {
+        RouteLandmarks route = route(20);
+        int[] small = new int[4];
+
+        int n = route.withinPrewarning(0.0, 0.010, small);
+
+        assertEquals(9, n);
+        int[] retry = new int[n];
+        assertEquals(9, route.withinPrewarning(0.0, 0.010, retry));
+        assertEquals(6, retry[0]);
+        assertEquals(14, retry[8]);
+    }
+}
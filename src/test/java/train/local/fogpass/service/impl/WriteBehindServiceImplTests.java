@@ -0,0 +1,134 @@
+package train.local.fogpass.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import train.local.fogpass.model.GpsFix;
+import train.local.fogpass.model.JourneyLogRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WriteBehindServiceImplTests {
+
+    @TempDir
+    Path spoolDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private WriteBehindServiceImpl service;
+    private final List<Long> inserted = new ArrayList<>(); // timestamps of track points sent to MySQL
+    private final List<String> insertedLogs = new ArrayList<>(); // event types of journey_logs rows sent to MySQL
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        doAnswer(inv -> {
+            for (Object row : (Collection<Object>) inv.getArgument(1)) {
+                if (row instanceof GpsFix f) inserted.add(f.getTimestamp());
+                else if (row instanceof JourneyLogRecord r) insertedLogs.add(r.getEventType());
+            }
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        // The flusher thread waits an hour between cycles; the tests drive replay themselves
+        service = new WriteBehindServiceImpl(jdbcTemplate, transactionTemplate, new ObjectMapper(),
+                2, 1000, 3_600_000, 2000, 30_000, spoolDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.shutdown();
+    }
+
+    private static String fix(long ts) {
+        return "{\"journeyId\":1,\"timestamp\":" + ts + ",\"latitude\":28.6,\"longitude\":77.2,\"speed\":40.0,\"heading\":90.0}";
+    }
+
+    @Test
+    void corruptSpoolLineIsDeadLetteredAndReplayCompletesOnce() throws Exception {
+        Files.write(spoolDir.resolve("track_points.ndjson"),
+                List.of(fix(1), fix(2), "{\"journeyId\":1,\"timest", fix(3), fix(4), fix(5)), StandardCharsets.UTF_8);
+
+        service.replaySpools();
+        service.replaySpools(); // nothing left: a second cycle must not insert anything again
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), inserted);
+        assertEquals(List.of("{\"journeyId\":1,\"timest"),
+                Files.readAllLines(spoolDir.resolve("track_points.dead.ndjson"), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(spoolDir.resolve("track_points.replaying.ndjson")));
+        assertFalse(Files.exists(spoolDir.resolve("track_points.ndjson")));
+    }
+
+    @Test
+    void replayResumesAfterCheckpointedLines() throws Exception {
+        // A previous replay wrote the first three lines, then the process died
+        Files.write(spoolDir.resolve("track_points.replaying.ndjson"),
+                List.of(fix(1), fix(2), fix(3), fix(4)), StandardCharsets.UTF_8);
+        Files.writeString(spoolDir.resolve("track_points.replaying.offset"), "3");
+
+        service.replaySpools();
+
+        assertEquals(List.of(4L), inserted);
+        assertFalse(Files.exists(spoolDir.resolve("track_points.replaying.offset")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectedRowIsDeadLetteredWithoutDegrading() throws Exception {
+        Files.write(spoolDir.resolve("track_points.ndjson"), List.of(fix(1), fix(2)), StandardCharsets.UTF_8);
+        doThrow(new DataIntegrityViolationException("fk")).when(jdbcTemplate)
+                .batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<Integer> rowAttempts = new ArrayList<>();
+        doAnswer(inv -> {
+            rowAttempts.add(rowAttempts.size());
+            if (rowAttempts.size() == 1) throw new DataIntegrityViolationException("fk");
+            return 1;
+        }).when(jdbcTemplate).update(anyString(), any(PreparedStatementSetter.class));
+
+        service.replaySpools();
+
+        assertEquals(2, rowAttempts.size());
+        assertTrue(Files.readString(spoolDir.resolve("track_points.dead.ndjson")).contains("\"timestamp\":1"));
+        Map<String, Object> stats = service.getStats();
+        assertEquals(false, stats.get("degraded"));
+        assertFalse(Files.exists(spoolDir.resolve("track_points.replaying.ndjson")));
+    }
+
+    @Test
+    void leftoverJourneyLogSpoolIsReplayed() throws Exception {
+        Files.write(spoolDir.resolve("journey_logs.ndjson"), List.of(
+                "{\"journeyId\":1,\"timestamp\":1,\"eventType\":\"JOURNEY_ENDED\",\"eventData\":\"{}\"}"),
+                StandardCharsets.UTF_8);
+
+        service.replaySpools();
+
+        assertEquals(List.of("JOURNEY_ENDED"), insertedLogs);
+        assertFalse(Files.exists(spoolDir.resolve("journey_logs.ndjson")));
+    }
+}
@@ -0,0 +1,73 @@
+package train.local.fogpass.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrackCodecTests {
+
+    private record Point(long ts, int lat, int lon, short speed, short heading) {
+    }
+
+    private static List<Point> roundTrip(List<Point> points) {
+        TrackCodec.Encoder encoder = new TrackCodec.Encoder();
+        for (Point p : points) encoder.add(p.ts(), p.lat(), p.lon(), p.speed(), p.heading());
+        List<Point> decoded = new ArrayList<>();
+        int n = TrackCodec.decode(encoder.toByteArray(),
+                (ts, lat, lon, speed, heading) -> decoded.add(new Point(ts, lat, lon, speed, heading)));
+        assertEquals(points.size(), n);
+        return decoded;
+    }
+
+    @Test
+    void roundTripsNegativeDeltas() {
+        List<Point> points = List.of(
+                new Point(1_700_000_000_000L, 285_000_000, 772_000_000, (short) 900, (short) 3_599),
+                new Point(1_700_000_001_000L, 284_999_500, 771_999_000, (short) 850, (short) 10),
+                new Point(1_700_000_002_000L, 284_998_000, 771_997_500, (short) 0, (short) 0),
+                new Point(1_700_000_002_500L, -900_000_000, -1_800_000_000, (short) 5_000, (short) 1_800));
+
+        assertEquals(points, roundTrip(points));
+    }
+
+    @Test
+    void roundTripsLargeGapsAndExtremes() {
+        List<Point> points = List.of(
+                new Point(0L, 900_000_000, 1_800_000_000, Short.MAX_VALUE, Short.MAX_VALUE),
+                new Point(1_000L, -900_000_000, -1_800_000_000, Short.MIN_VALUE, Short.MIN_VALUE),
+                new Point(86_400_000L * 30, 0, 0, (short) 0, (short) 0),   // a month-long gap
+                new Point(86_400_000L * 30 + 1, 1, -1, (short) 1, (short) -1),
+                new Point(Long.MAX_VALUE / 2, 900_000_000, -1_800_000_000, (short) 0, (short) 3_600));
+
+        assertEquals(points, roundTrip(points));
+    }
+
+    @Test
+    void roundTripsALongSteadyTrack() {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // 1 Hz with an occasional dropout, drifting back and forth
+            long ts = 1_700_000_000_000L + i * 1_000L + (i % 97 == 0 ? 60_000L * i : 0);
+            points.add(new Point(ts, 285_000_000 + (i % 200 - 100) * 2_500, 772_000_000 - i * 3_000,
+                    (short) (i % 1_000), (short) (i * 7 % 3_600)));
+        }
+        points.sort((a, b) -> Long.compare(a.ts(), b.ts()));
+
+        assertEquals(points, roundTrip(points));
+    }
+
+    @Test
+    void emptyTrackRoundTrips() {
+        assertEquals(List.of(), roundTrip(List.of()));
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        assertThrows(IllegalArgumentException.class, () -> TrackCodec.decode(new byte[]{9, 0, 0, 0, 0}, (ts, lat, lon, s, h) -> {
+        }));
+    }
+}